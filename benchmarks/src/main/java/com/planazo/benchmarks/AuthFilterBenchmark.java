@@ -0,0 +1,71 @@
+package com.planazo.benchmarks;
+
+import com.planazo.repository.UserRepository;
+import com.planazo.security.JwtAuthenticationFilter;
+import com.planazo.security.UserAuthState;
+import com.planazo.security.UserStatusCache;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Camino completo de una petición autenticada por {@link JwtAuthenticationFilter}:
+ * cabecera, verificación del token (en caché), estado de la cuenta (en caché) y
+ * autenticación en el SecurityContext. El almacén de usuarios es un mock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAuthStateById(anyLong())).thenReturn(Optional.of(new UserAuthState(true, 0)));
+
+        var jwtUtil = BenchmarkFixtures.jwtUtil();
+        filter = new JwtAuthenticationFilter(jwtUtil, new UserStatusCache(userRepository, 10_000, 60));
+        authorization = "Bearer " + jwtUtil.generateToken("user42@planazo.com", 42L, 0);
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/plans");
+        request.addHeader("Authorization", authorization);
+
+        Authentication[] result = new Authentication[1];
+        FilterChain chain = (req, res) -> result[0] = SecurityContextHolder.getContext().getAuthentication();
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return result[0];
+    }
+}
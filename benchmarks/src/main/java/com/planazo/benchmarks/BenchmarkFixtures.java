@@ -0,0 +1,98 @@
+package com.planazo.benchmarks;
+
+import com.planazo.model.Category;
+import com.planazo.model.Participation;
+import com.planazo.model.ParticipationStatus;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import com.planazo.security.JwtUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+
+/**
+ * Objetos de prueba comunes a los benchmarks, construidos sin contexto de Spring.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private BenchmarkFixtures() {
+    }
+
+    // JwtUtil lee su configuración con @Value y se inicializa en @PostConstruct
+    static JwtUtil jwtUtil() {
+        try {
+            JwtUtil jwtUtil = new JwtUtil();
+            set(jwtUtil, "secret", SECRET);
+            set(jwtUtil, "expiration", 86_400_000L);
+            set(jwtUtil, "cacheMaxSize", 10_000);
+            Method init = JwtUtil.class.getDeclaredMethod("init");
+            init.setAccessible(true);
+            init.invoke(jwtUtil);
+            return jwtUtil;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo preparar JwtUtil", e);
+        }
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@planazo.com")
+                .passwordHash("$2a$10$abcdefghijklmnopqrstuv")
+                .name("Usuario " + id)
+                .profilePicture("https://cdn.planazo.com/u/" + id + ".png")
+                .bio("Me gustan los planes al aire libre")
+                .registrationDate(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .active(true)
+                .build();
+    }
+
+    static Plan plan(long id) {
+        Category category = Category.builder()
+                .id(id % 8)
+                .name("Deportes")
+                .description("Planes deportivos")
+                .iconEmoji("⚽")
+                .colorHex("#33AA55")
+                .active(true)
+                .build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 1, 12, 0);
+        return Plan.builder()
+                .id(id)
+                .title("Partido de fútbol " + id)
+                .description("Pachanga de los jueves en el polideportivo")
+                .category(category)
+                .creator(user(id % 100))
+                .location("Madrid centro")
+                .latitude(40.4168)
+                .longitude(-3.7038)
+                .eventDate(createdAt.plusDays(30))
+                .maxParticipants(10)
+                .currentParticipants(4)
+                .status(PlanStatus.ACTIVE)
+                .imageUrl("https://cdn.planazo.com/p/" + id + ".jpg")
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    static Participation participation(long id) {
+        return Participation.builder()
+                .id(id)
+                .plan(plan(id))
+                .user(user(id))
+                .status(ParticipationStatus.CONFIRMED)
+                .joinedAt(LocalDateTime.of(2025, 6, 2, 9, 30))
+                .build();
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
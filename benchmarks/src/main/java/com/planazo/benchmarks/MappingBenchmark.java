@@ -0,0 +1,60 @@
+package com.planazo.benchmarks;
+
+import com.planazo.dto.ParticipationMapper;
+import com.planazo.dto.PlanMapper;
+import com.planazo.dto.response.ParticipantResponse;
+import com.planazo.dto.response.ParticipationResponse;
+import com.planazo.dto.response.PlanResponse;
+import com.planazo.model.Participation;
+import com.planazo.model.Plan;
+import com.planazo.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad → DTO que se ejecuta por cada elemento de un listado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private Plan plan;
+    private Participation participation;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        plan = BenchmarkFixtures.plan(1);
+        participation = BenchmarkFixtures.participation(1);
+        user = BenchmarkFixtures.user(1);
+    }
+
+    @Benchmark
+    public PlanResponse toPlanResponse() {
+        return PlanMapper.toPlanResponse(plan);
+    }
+
+    @Benchmark
+    public ParticipationResponse toParticipationResponse() {
+        return ParticipationMapper.toParticipationResponse(participation);
+    }
+
+    @Benchmark
+    public ParticipantResponse toParticipantResponse() {
+        return ParticipationMapper.toParticipantResponse(user);
+    }
+}
@@ -0,0 +1,57 @@
+package com.planazo.benchmarks;
+
+import com.planazo.dto.PlanMapper;
+import com.planazo.dto.response.PlanResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialización JSON de una página de planes, tal como la devuelven los listados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<PlanResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        List<PlanResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::plan)
+                .map(PlanMapper::toPlanResponse)
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
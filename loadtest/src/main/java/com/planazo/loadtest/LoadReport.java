@@ -0,0 +1,131 @@
+package com.planazo.loadtest;
+
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Informe JSON de una ejecución: configuración, volumen y, por escenario, recuentos,
+ * percentiles en milisegundos y el histograma completo comprimido (Base64), que
+ * HdrHistogram puede decodificar y sumar para comparar versiones.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final ObjectMapper mapper;
+
+    LoadReport(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    ObjectNode build(LoadTestConfig config, Seeder.SeedData data, OpenLoadDriver.Run run, Instant startedAt) {
+        ObjectNode report = mapper.createObjectNode();
+        report.put("tool", "planazo-loadtest");
+        report.put("startedAt", startedAt.toString());
+
+        ObjectNode configNode = report.putObject("config");
+        configNode.put("url", config.baseUrl().toString());
+        configNode.put("rate", config.rate());
+        configNode.put("arrivals", config.poisson() ? "poisson" : "constant");
+        configNode.put("warmupSeconds", config.warmup().toSeconds());
+        configNode.put("durationSeconds", config.duration().toSeconds());
+        configNode.put("maxInFlight", config.maxInFlight());
+        configNode.put("seed", config.seed());
+        ObjectNode mixNode = configNode.putObject("mix");
+        config.mix().forEach((scenario, weight) -> mixNode.put(scenario.key(), weight));
+
+        ObjectNode seedNode = report.putObject("data");
+        seedNode.put("users", data.accounts().size());
+        seedNode.put("categories", data.categoryIds().size());
+        seedNode.put("plans", data.planIds().size());
+
+        Histogram total = new Histogram(3);
+        long completed = 0;
+        ObjectNode scenariosNode = report.putObject("scenarios");
+        for (Map.Entry<Scenario, ScenarioStats> entry : run.stats().entrySet()) {
+            ScenarioStats stats = entry.getValue();
+            Histogram latency = stats.latency().copy();
+            total.add(latency);
+            completed += latency.getTotalCount();
+
+            ObjectNode node = scenariosNode.putObject(entry.getKey().key());
+            node.put("count", latency.getTotalCount());
+            node.put("throughput", round(latency.getTotalCount() / run.measuredSeconds()));
+            node.put("ok", stats.ok());
+            node.put("rejected", stats.rejected());
+            node.put("errors", stats.errors());
+            node.put("dropped", stats.dropped());
+            ObjectNode statusesNode = node.putObject("statuses");
+            stats.statuses().forEach(statusesNode::put);
+            node.set("latencyMs", latencyNode(latency));
+            node.put("histogram", encode(latency));
+        }
+
+        ObjectNode totalNode = report.putObject("total");
+        totalNode.put("issued", run.issued());
+        totalNode.put("count", completed);
+        totalNode.put("throughput", round(completed / run.measuredSeconds()));
+        totalNode.set("latencyMs", latencyNode(total));
+        return report;
+    }
+
+    void write(ObjectNode report, LoadTestConfig config) throws IOException {
+        Files.write(config.output(), mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+    }
+
+    // Resumen legible en consola
+    void print(ObjectNode report, PrintStream out) {
+        out.printf("%-8s %8s %8s %8s %8s %9s %9s %9s %9s%n",
+                "scenario", "count", "ok", "rej", "err", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        report.path("scenarios").properties().forEach(entry -> {
+            var node = entry.getValue();
+            var latency = node.path("latencyMs");
+            out.printf(Locale.ROOT, "%-8s %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), node.path("count").asLong(), node.path("ok").asLong(),
+                    node.path("rejected").asLong(), node.path("errors").asLong(),
+                    latency.path("p50").asDouble(), latency.path("p99").asDouble(),
+                    latency.path("p99.9").asDouble(), latency.path("max").asDouble());
+        });
+        out.printf(Locale.ROOT, "total: %d ops, %.1f ops/s%n",
+                report.path("total").path("count").asLong(), report.path("total").path("throughput").asDouble());
+    }
+
+    private ObjectNode latencyNode(Histogram latency) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("min", toMillis(latency.getMinValue()));
+        node.put("mean", round(latency.getMean() / 1000.0));
+        for (double percentile : PERCENTILES) {
+            String key = percentile == Math.rint(percentile)
+                    ? "p" + (int) percentile
+                    : "p" + percentile;
+            node.put(key, toMillis(latency.getValueAtPercentile(percentile)));
+        }
+        node.put("max", toMillis(latency.getMaxValue()));
+        return node;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double toMillis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
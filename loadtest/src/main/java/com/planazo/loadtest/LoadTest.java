@@ -0,0 +1,41 @@
+package com.planazo.loadtest;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+
+/**
+ * Punto de entrada: siembra datos, aplica la carga y escribe el informe.
+ *
+ * <pre>
+ * java -jar target/loadtest.jar --url=http://localhost:8080 --users=100 --plans=500 \
+ *      --rate=200 --duration=120 --mix=browse=40,search=25,detail=20,join=10,login=5
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ObjectMapper mapper = JsonMapper.builder().build();
+        PlanazoClient client = new PlanazoClient(config.baseUrl(), config.timeout(), mapper);
+
+        System.out.printf("Sembrando %d usuarios y %d planes en %s...%n", config.users(), config.plans(), config.baseUrl());
+        Seeder.SeedData data = new Seeder(client).seed(config);
+
+        System.out.printf("Carga: %.1f ops/s durante %ds (+%ds de calentamiento)%n",
+                config.rate(), config.duration().toSeconds(), config.warmup().toSeconds());
+        Instant startedAt = Instant.now();
+        OpenLoadDriver.Run run = new OpenLoadDriver(config, new ScenarioRunner(client, data)).run();
+
+        LoadReport report = new LoadReport(mapper);
+        ObjectNode json = report.build(config, data, run, startedAt);
+        report.write(json, config);
+        report.print(json, System.out);
+        System.out.println("Informe: " + config.output().toAbsolutePath());
+    }
+}
@@ -0,0 +1,79 @@
+package com.planazo.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución, leídos de argumentos {@code --clave=valor}.
+ * Con la misma semilla y los mismos parámetros se genera la misma secuencia de operaciones.
+ */
+record LoadTestConfig(
+        URI baseUrl,
+        int users,
+        int plans,
+        double rate,
+        boolean poisson,
+        Duration warmup,
+        Duration duration,
+        Duration timeout,
+        int maxInFlight,
+        long seed,
+        Map<Scenario, Integer> mix,
+        Path output
+) {
+
+    static final String DEFAULT_MIX = "browse=40,search=25,detail=20,join=10,login=5";
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg + " (se espera --clave=valor)");
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                URI.create(options.getOrDefault("url", "http://localhost:8080")),
+                Integer.parseInt(options.getOrDefault("users", "50")),
+                Integer.parseInt(options.getOrDefault("plans", "200")),
+                Double.parseDouble(options.getOrDefault("rate", "100")),
+                options.getOrDefault("arrivals", "poisson").equals("poisson"),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "10"))),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "5000")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(options.getOrDefault("out", "loadtest-report.json"))
+        );
+        if (config.users() < 2 || config.plans() < 1 || config.rate() <= 0) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 usuarios, 1 plan y una tasa positiva");
+        }
+        return config;
+    }
+
+    // "browse=40,search=25,..." -> pesos por escenario; los que no aparecen no se ejecutan
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mezcla no válida: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ningún escenario con peso positivo");
+        }
+        return weights;
+    }
+}
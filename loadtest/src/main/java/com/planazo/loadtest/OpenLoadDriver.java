@@ -0,0 +1,111 @@
+package com.planazo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modelo abierto: las operaciones llegan a la tasa configurada (constante o Poisson)
+ * tanto si el servidor responde a tiempo como si no, cada una en su propio hilo virtual.
+ * Un modelo cerrado (N hilos en bucle) frena al ir lento el servidor y subestima la cola.
+ */
+final class OpenLoadDriver {
+
+    record Run(Map<Scenario, ScenarioStats> stats, long issued, double measuredSeconds) {
+    }
+
+    private final LoadTestConfig config;
+    private final ScenarioRunner runner;
+
+    OpenLoadDriver(LoadTestConfig config, ScenarioRunner runner) {
+        this.config = config;
+        this.runner = runner;
+    }
+
+    Run run() throws InterruptedException {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        config.mix().keySet().forEach(scenario -> stats.put(scenario, new ScenarioStats()));
+        Scenario[] scenarios = config.mix().keySet().toArray(Scenario[]::new);
+        int[] cumulativeWeights = cumulativeWeights(scenarios);
+
+        // La semilla fija el orden de escenarios y los datos de cada operación
+        SplittableRandom random = new SplittableRandom(config.seed() ^ 0x5DEECE66DL);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        long issued = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            double next = start;
+            while (true) {
+                next += config.poisson()
+                        ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                        : meanIntervalNanos;
+                long intended = (long) next;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = pick(scenarios, cumulativeWeights, random);
+                SplittableRandom operationRandom = random.split();
+                ScenarioStats scenarioStats = intended >= measureFrom ? stats.get(scenario) : null;
+
+                if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (scenarioStats != null) {
+                        scenarioStats.recordDropped();
+                    }
+                    continue;
+                }
+                issued++;
+                executor.execute(() -> {
+                    try {
+                        ScenarioRunner.Result result = runner.run(scenario, operationRandom);
+                        if (scenarioStats != null) {
+                            scenarioStats.record(result, System.nanoTime() - intended);
+                        }
+                    } catch (Exception e) {
+                        if (scenarioStats != null) {
+                            scenarioStats.recordFailure(e, System.nanoTime() - intended);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            // Al cerrar el executor se espera a que terminen las operaciones en vuelo
+        }
+        return new Run(stats, issued, config.duration().toNanos() / 1e9);
+    }
+
+    private int[] cumulativeWeights(Scenario[] scenarios) {
+        int[] cumulative = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += config.mix().get(scenarios[i]);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static Scenario pick(Scenario[] scenarios, int[] cumulativeWeights, SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+}
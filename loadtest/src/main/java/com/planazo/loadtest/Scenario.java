@@ -0,0 +1,37 @@
+package com.planazo.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Operaciones que componen la carga. Cada una es lo que haría un usuario real en un paso.
+ */
+enum Scenario {
+
+    // Primera página del feed de próximos planes
+    BROWSE("browse"),
+    // Búsqueda de texto libre
+    SEARCH("search"),
+    // Detalle de un plan
+    DETAIL("detail"),
+    // Unirse y salir de uno de los pocos planes "populares": fuerza carreras por las plazas
+    JOIN_LEAVE("join"),
+    // Login completo (BCrypt incluido)
+    LOGIN("login");
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Scenario fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Escenario desconocido: " + key));
+    }
+}
@@ -0,0 +1,66 @@
+package com.planazo.loadtest;
+
+import com.planazo.loadtest.Seeder.Account;
+import com.planazo.loadtest.Seeder.SeedData;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Ejecuta un paso de un escenario y lo clasifica: éxito, rechazo esperado (p. ej. plan
+ * lleno al perder una carrera por la última plaza) o error.
+ */
+final class ScenarioRunner {
+
+    enum Outcome { OK, REJECTED, ERROR }
+
+    record Result(Outcome outcome, int status) {
+    }
+
+    private final PlanazoClient client;
+    private final SeedData data;
+
+    ScenarioRunner(PlanazoClient client, SeedData data) {
+        this.client = client;
+        this.data = data;
+    }
+
+    Result run(Scenario scenario, SplittableRandom random) throws Exception {
+        Account account = pick(data.accounts(), random);
+        return switch (scenario) {
+            case BROWSE -> classify(client.get("/api/plans/upcoming/feed?size=20", account.token()));
+            case SEARCH -> classify(client.get("/api/plans/search?size=20&q="
+                    + URLEncoder.encode(Seeder.SEARCH_TERMS[random.nextInt(Seeder.SEARCH_TERMS.length)],
+                    StandardCharsets.UTF_8), account.token()));
+            case DETAIL -> classify(client.get("/api/plans/" + pick(data.planIds(), random), account.token()));
+            case JOIN_LEAVE -> joinAndLeave(account, pick(data.hotPlanIds(), random));
+            case LOGIN -> classify(client.post("/api/auth/login",
+                    Map.of("email", account.email(), "password", Seeder.PASSWORD), null));
+        };
+    }
+
+    private Result joinAndLeave(Account account, long planId) throws Exception {
+        PlanazoClient.Response join = client.post("/api/participations/plans/" + planId + "/join", null, account.token());
+        if (!join.isSuccess()) {
+            // Plan lleno, ya unido o creador del plan: la API responde 400 y la carrera se da por perdida
+            return classify(join);
+        }
+        return classify(client.delete("/api/participations/plans/" + planId + "/leave", account.token()));
+    }
+
+    private static Result classify(PlanazoClient.Response response) {
+        int status = response.status();
+        if (response.isSuccess()) {
+            return new Result(Outcome.OK, status);
+        }
+        // 429: el rate limiter rechazó la petición a propósito; no es un fallo del servidor
+        return new Result(status == 400 || status == 409 || status == 429 ? Outcome.REJECTED : Outcome.ERROR, status);
+    }
+
+    private static <T> T pick(List<T> items, SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+}
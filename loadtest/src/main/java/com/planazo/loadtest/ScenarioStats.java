@@ -0,0 +1,74 @@
+package com.planazo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de un escenario. La latencia se mide en microsegundos desde el instante en
+ * que la operación debía empezar según el modelo abierto, no desde que empezó de verdad:
+ * así las colas del cliente no esconden la lentitud del servidor (omisión coordinada).
+ */
+final class ScenarioStats {
+
+    // Hasta 10 minutos con 3 cifras significativas
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(ScenarioRunner.Result result, long latencyNanos) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latency.getHighestTrackableValue()));
+        statuses.computeIfAbsent(String.valueOf(result.status()), key -> new LongAdder()).increment();
+        switch (result.outcome()) {
+            case OK -> ok.increment();
+            case REJECTED -> rejected.increment();
+            case ERROR -> errors.increment();
+        }
+    }
+
+    // Fallo de transporte (timeout, conexión rechazada...): cuenta como error con su latencia
+    void recordFailure(Throwable failure, long latencyNanos) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latency.getHighestTrackableValue()));
+        statuses.computeIfAbsent(failure.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        errors.increment();
+    }
+
+    // Llegada descartada por superar el máximo de operaciones en vuelo
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    Histogram latency() {
+        return latency;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Map<String, Long> statuses() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        statuses.forEach((status, count) -> snapshot.put(status, count.sum()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,161 @@
+package com.planazo.loadtest;
+
+import tools.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepara los datos de la prueba a través de la propia API: registra (o reutiliza) los
+ * usuarios, lee las categorías que carga la aplicación al arrancar y crea los planes.
+ * Los emails son fijos, así que repetir la prueba contra la misma base reutiliza las cuentas.
+ */
+final class Seeder {
+
+    static final String PASSWORD = "loadtest123";
+
+    // Planes con pocas plazas sobre los que se concentran las uniones
+    static final int HOT_PLANS = 10;
+    private static final int HOT_PLAN_SEATS = 3;
+
+    // El servidor hashea con BCrypt cada registro: no tiene sentido lanzar más a la vez
+    private static final int CONCURRENCY = 32;
+
+    private static final String[] ACTIVITIES = {
+            "Ruta de senderismo", "Partido de pádel", "Cena de tapas", "Concierto acústico",
+            "Escalada en rocódromo", "Intercambio de idiomas", "Sesión de cine", "Yoga al aire libre",
+            "Ruta en bici", "Torneo de ajedrez", "Visita al museo", "Fútbol sala"
+    };
+
+    private static final String[] ADJECTIVES = {
+            "tranquilo", "para principiantes", "nocturno", "de fin de semana", "con amigos", "exprés"
+    };
+
+    static final String[] SEARCH_TERMS = {
+            "senderismo", "padel", "tapas", "concierto", "escalada", "idiomas",
+            "cine", "yoga", "bici", "ajedrez", "museo", "futbol", "nocturno", "principiantes"
+    };
+
+    private record City(String name, double latitude, double longitude) {
+    }
+
+    private static final City[] CITIES = {
+            new City("Madrid", 40.4168, -3.7038),
+            new City("Barcelona", 41.3874, 2.1686),
+            new City("Valencia", 39.4699, -0.3763),
+            new City("Sevilla", 37.3891, -5.9845),
+            new City("Zaragoza", 41.6488, -0.8891),
+            new City("Málaga", 36.7213, -4.4214),
+            new City("Bilbao", 43.2630, -2.9350),
+            new City("Granada", 37.1773, -3.5986)
+    };
+
+    record Account(long id, String email, String token) {
+    }
+
+    record SeedData(List<Account> accounts, List<Long> categoryIds, List<Long> planIds, List<Long> hotPlanIds) {
+    }
+
+    private final PlanazoClient client;
+
+    Seeder(PlanazoClient client) {
+        this.client = client;
+    }
+
+    SeedData seed(LoadTestConfig config) throws Exception {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY, Thread.ofVirtual().factory())) {
+            List<Future<Account>> pendingAccounts = new ArrayList<>();
+            for (int i = 0; i < config.users(); i++) {
+                String email = "load" + i + "@planazo.test";
+                pendingAccounts.add(executor.submit(() -> account(email)));
+            }
+            List<Account> accounts = collect(pendingAccounts);
+
+            List<Long> categoryIds = categoryIds(accounts.get(0).token());
+
+            List<Future<Long>> pendingPlans = new ArrayList<>();
+            for (int i = 0; i < config.plans(); i++) {
+                Account creator = accounts.get(random.nextInt(accounts.size()));
+                Map<String, Object> plan = plan(i, random.split(), categoryIds);
+                pendingPlans.add(executor.submit(() -> createPlan(plan, creator.token())));
+            }
+            List<Long> planIds = collect(pendingPlans);
+
+            return new SeedData(accounts, categoryIds, planIds, planIds.subList(0, Math.min(HOT_PLANS, planIds.size())));
+        }
+    }
+
+    private Account account(String email) throws Exception {
+        PlanazoClient.Response response = client.post("/api/auth/register",
+                Map.of("email", email, "password", PASSWORD, "name", "Carga " + email.substring(0, email.indexOf('@'))),
+                null);
+        if (response.status() == 409) {
+            // Ya existía de una ejecución anterior
+            response = client.post("/api/auth/login", Map.of("email", email, "password", PASSWORD), null);
+        }
+        JsonNode auth = expectSuccess(response, "registro/login de " + email);
+        return new Account(auth.path("user").path("id").asLong(), email, auth.path("token").asString());
+    }
+
+    private List<Long> categoryIds(String token) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode category : expectSuccess(client.get("/api/categories", token), "listado de categorías")) {
+            ids.add(category.path("id").asLong());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("La aplicación no tiene categorías");
+        }
+        return ids;
+    }
+
+    private Long createPlan(Map<String, Object> plan, String token) throws Exception {
+        return expectSuccess(client.post("/api/plans", plan, token), "creación de plan").path("id").asLong();
+    }
+
+    private static Map<String, Object> plan(int index, SplittableRandom random, List<Long> categoryIds) {
+        City city = CITIES[random.nextInt(CITIES.length)];
+        String activity = ACTIVITIES[random.nextInt(ACTIVITIES.length)];
+        LocalDateTime eventDate = LocalDateTime.now()
+                .plusDays(1 + random.nextInt(60))
+                .plusMinutes(random.nextInt(24 * 60))
+                .truncatedTo(ChronoUnit.MINUTES);
+
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("title", activity + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]);
+        plan.put("description", activity + " en " + city.name() + ". Plan de carga #" + index);
+        plan.put("categoryId", categoryIds.get(random.nextInt(categoryIds.size())));
+        plan.put("location", city.name() + " centro");
+        // Dispersión de unos pocos kilómetros alrededor del centro
+        plan.put("latitude", city.latitude() + (random.nextDouble() - 0.5) * 0.1);
+        plan.put("longitude", city.longitude() + (random.nextDouble() - 0.5) * 0.1);
+        plan.put("eventDate", eventDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        plan.put("maxParticipants", index < HOT_PLANS ? HOT_PLAN_SEATS : 2 + random.nextInt(29));
+        return plan;
+    }
+
+    private JsonNode expectSuccess(PlanazoClient.Response response, String what) {
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Fallo en " + what + ": HTTP " + response.status()
+                    + " " + new String(response.body()));
+        }
+        return client.json(response);
+    }
+
+    private static <T> List<T> collect(List<Future<T>> futures) throws Exception {
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
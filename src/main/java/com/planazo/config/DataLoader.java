@@ -2,20 +2,24 @@ package com.planazo.config;
 
 import com.planazo.model.Category;
 import com.planazo.repository.CategoryRepository;
+import com.planazo.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
 
 @Component
+@Order(1)
 @RequiredArgsConstructor
 @Slf4j
 public class DataLoader implements CommandLineRunner {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
 
     @Override
     public void run(String... args) {
@@ -129,6 +133,7 @@ public class DataLoader implements CommandLineRunner {
         );
 
         categoryRepository.saveAll(categories);
+        categoryService.refreshCache();
         log.info("✅ {} categories loaded successfully", categories.size());
     }
 }
@@ -0,0 +1,31 @@
+package com.planazo.config;
+
+import com.planazo.metrics.CountingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Envuelve el pool: primero la puerta de admisión (DbAdmissionGate) y por fuera el contador
+    // de sentencias y tiempo de JDBC por petición (ver RequestMetricsFilter).
+    // Estático para que el post-procesador exista antes que el DataSource; la puerta se resuelve
+    // al envolver, no al registrar el post-procesador.
+    @Bean
+    static BeanPostProcessor dataSourcePostProcessor(ObjectProvider<DbAdmissionGate> admissionGate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                DbAdmissionGate gate = admissionGate.getIfAvailable();
+                return CountingDataSource.wrap(gate != null ? gate.guard(dataSource) : dataSource);
+            }
+        };
+    }
+}
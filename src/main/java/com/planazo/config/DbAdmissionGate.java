@@ -0,0 +1,129 @@
+package com.planazo.config;
+
+import com.planazo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Puerta de admisión delante del pool de conexiones: como mucho {@code permits} hilos
+ * tienen (o piden) conexión a la vez y el resto espera en un semáforo justo (FIFO).
+ * <p>
+ * Con hilos virtuales puede haber miles de peticiones a la vez; esperar aquí no cuesta
+ * nada y evita que todas se agolpen en Hikari hasta agotar su connectionTimeout. Si la
+ * espera supera {@code max-wait} se rechaza enseguida con un 503 y Retry-After.
+ */
+@Component
+@Slf4j
+public class DbAdmissionGate {
+
+    private final Semaphore semaphore;
+    private final int permits;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public DbAdmissionGate(MeterRegistry meterRegistry,
+                           @Value("${db.gate.permits:10}") int permits,
+                           @Value("${db.gate.max-wait:PT2S}") Duration maxWait,
+                           @Value("${db.gate.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("planazo.db.gate.wait")
+                .description("Espera para obtener turno de conexión")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("planazo.db.gate.rejected")
+                .description("Peticiones rechazadas por superar la espera máxima")
+                .register(meterRegistry);
+        Gauge.builder("planazo.db.gate.waiting", waiting, AtomicInteger::get)
+                .description("Hilos esperando turno de conexión")
+                .register(meterRegistry);
+        Gauge.builder("planazo.db.gate.in_use", semaphore, gate -> permits - gate.availablePermits())
+                .description("Turnos de conexión ocupados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envuelve el DataSource: cada getConnection pide turno y el close de la conexión lo devuelve.
+     */
+    public DataSource guard(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getConnection")) {
+                        return invoke(target, method, args);
+                    }
+                    acquire();
+                    try {
+                        return release((Connection) invoke(target, method, args));
+                    } catch (Throwable e) {
+                        semaphore.release();
+                        throw e;
+                    }
+                });
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                log.warn("DB admission gate full ({} permits, {} waiting): shedding request", permits, waiting.get());
+                throw new ServiceUnavailableException("Service busy, please retry", retryAfterSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for a database connection", retryAfterSeconds);
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // El turno se devuelve una sola vez, aunque la conexión se cierre varias veces
+    private Connection release(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            return invoke(target, method, args);
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                semaphore.release();
+                            }
+                        }
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
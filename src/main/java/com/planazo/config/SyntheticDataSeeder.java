@@ -0,0 +1,370 @@
+package com.planazo.config;
+
+import com.planazo.util.ZipfSampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Genera un conjunto de datos sintético de tamaño de producción para medir rendimiento
+ * (perfil {@code seed}, ver application-seed.properties).
+ * <p>
+ * Es determinista para una misma semilla y está sesgado como los datos reales: unos pocos
+ * usuarios crean muchos planes, unos pocos planes se llevan casi todas las participaciones
+ * (Zipf) y los planes se concentran en las ciudades grandes. Se inserta con JDBC por lotes
+ * (reWriteBatchedInserts agrupa cada lote en pocas sentencias) y al final se ajustan las
+ * secuencias para que Hibernate siga generando IDs libres.
+ */
+@Component
+@Profile("seed")
+@Order(2) // Después de DataLoader: necesita las categorías
+@Slf4j
+public class SyntheticDataSeeder implements CommandLineRunner {
+
+    static final String PASSWORD = "seed1234";
+
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(id, email, password_hash, name, bio, registration_date, active, token_epoch) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_PLAN = "INSERT INTO plans "
+            + "(id, title, description, category_id, creator_id, location, latitude, longitude, event_date, "
+            + "max_participants, current_participants, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PARTICIPATION = "INSERT INTO participations "
+            + "(id, plan_id, user_id, status, joined_at) VALUES (?, ?, ?, 'CONFIRMED', ?)";
+
+    private static final String[] FIRST_NAMES = {
+            "María", "Lucía", "Carmen", "Paula", "Laura", "Marta", "Sara", "Elena", "Ana", "Julia",
+            "Antonio", "Manuel", "José", "David", "Javier", "Daniel", "Carlos", "Pablo", "Alejandro", "Iván"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "García", "Rodríguez", "González", "Fernández", "López", "Martínez", "Sánchez", "Pérez",
+            "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno", "Muñoz", "Álvarez", "Romero"
+    };
+
+    private static final String[] ACTIVITIES = {
+            "Ruta de senderismo", "Partido de pádel", "Cena de tapas", "Concierto acústico",
+            "Escalada en rocódromo", "Intercambio de idiomas", "Sesión de cine", "Yoga al aire libre",
+            "Ruta en bici", "Torneo de ajedrez", "Visita al museo", "Fútbol sala", "Noche de juegos de mesa",
+            "Paseo con perros", "Tarde de estudio", "Escapada de fin de semana"
+    };
+
+    private static final String[] ADJECTIVES = {
+            "tranquilo", "para principiantes", "nocturno", "de fin de semana", "con amigos", "exprés", "solidario"
+    };
+
+    // Peso aproximado por población
+    private record City(String name, double latitude, double longitude, int weight) {
+    }
+
+    private static final City[] CITIES = {
+            new City("Madrid", 40.4168, -3.7038, 33),
+            new City("Barcelona", 41.3874, 2.1686, 24),
+            new City("Valencia", 39.4699, -0.3763, 8),
+            new City("Sevilla", 37.3891, -5.9845, 7),
+            new City("Zaragoza", 41.6488, -0.8891, 5),
+            new City("Málaga", 36.7213, -4.4214, 5),
+            new City("Bilbao", 43.2630, -2.9350, 4),
+            new City("Murcia", 37.9922, -1.1307, 4),
+            new City("Palma", 39.5696, 2.6502, 3),
+            new City("Las Palmas de Gran Canaria", 28.1235, -15.4363, 3),
+            new City("Valladolid", 41.6523, -4.7245, 2),
+            new City("Granada", 37.1773, -3.5986, 2)
+    };
+
+    // Lo que necesitan las participaciones de cada plan ya insertado
+    private record PlanRows(long[] creators, LocalDateTime[] createdAt, LocalDateTime[] joinDeadline) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int plans;
+    private final int participations;
+    private final long randomSeed;
+    private final int batchSize;
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate,
+                               PasswordEncoder passwordEncoder,
+                               @Value("${seed.users:1000000}") int users,
+                               @Value("${seed.plans:200000}") int plans,
+                               @Value("${seed.participations:2000000}") int participations,
+                               @Value("${seed.random-seed:42}") long randomSeed,
+                               @Value("${seed.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.plans = plans;
+        this.participations = participations;
+        this.randomSeed = randomSeed;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = 'seed0@planazo.test'", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Synthetic dataset already present. Skipping seed...");
+            return;
+        }
+
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE active ORDER BY id", Long.class);
+        if (categoryIds.isEmpty()) {
+            throw new IllegalStateException("Synthetic seed needs at least one active category");
+        }
+
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        SplittableRandom root = new SplittableRandom(randomSeed);
+
+        long userBase = nextId("users");
+        long planBase = nextId("plans");
+        long participationBase = nextId("participations");
+
+        insertUsers(userBase, root.split(), now);
+
+        // Capacidad y popularidad de cada plan antes de insertarlo, para que
+        // current_participants cuadre con las participaciones generadas
+        SplittableRandom planRandom = root.split();
+        int[] capacity = new int[plans];
+        for (int i = 0; i < plans; i++) {
+            capacity[i] = capacity(planRandom);
+        }
+        int[] joined = assignParticipations(capacity, root.split());
+
+        PlanRows planRows = insertPlans(planBase, userBase, capacity, joined, categoryIds, planRandom, now);
+        insertParticipations(participationBase, planBase, userBase, joined, planRows, root.split());
+
+        resetSequence("users");
+        resetSequence("plans");
+        resetSequence("participations");
+
+        log.info("Synthetic dataset ready in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private void insertUsers(long base, SplittableRandom random, LocalDateTime now) {
+        long started = System.currentTimeMillis();
+        // Un único hash para todos: BCrypt por usuario tardaría horas
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < users; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            batch.add(new Object[]{
+                    base + i,
+                    "seed" + i + "@planazo.test",
+                    passwordHash,
+                    name,
+                    random.nextInt(4) == 0 ? "Me apunto a " + ACTIVITIES[random.nextInt(ACTIVITIES.length)].toLowerCase() : null,
+                    now.minusMinutes(random.nextLong(3L * 365 * 24 * 60)),
+                    random.nextInt(100) >= 2
+            });
+            flushIfFull(INSERT_USER, batch);
+        }
+        flush(INSERT_USER, batch);
+        logPhase("users", users, started);
+    }
+
+    // Reparte las participaciones con Zipf sobre los planes, sin superar la capacidad de cada uno
+    private int[] assignParticipations(int[] capacity, SplittableRandom random) {
+        int[] joined = new int[plans];
+        ZipfSampler popularity = new ZipfSampler(plans, 0.8);
+        long multiplier = coprimeMultiplier(plans, 1_000_003);
+        int maxJoined = users - 1;
+        long assigned = 0;
+        long attempts = 0;
+        // Los planes más populares se llenan enseguida: se deja margen de intentos antes de rendirse
+        while (assigned < participations && attempts < 4L * participations) {
+            attempts++;
+            int plan = (int) scatter(popularity.sample(random), plans, multiplier);
+            // El creador ocupa una plaza
+            if (joined[plan] < Math.min(capacity[plan] - 1, maxJoined)) {
+                joined[plan]++;
+                assigned++;
+            }
+        }
+        return joined;
+    }
+
+    private PlanRows insertPlans(long base, long userBase, int[] capacity, int[] joined, List<Long> categoryIds,
+                               SplittableRandom random, LocalDateTime now) {
+        long started = System.currentTimeMillis();
+        ZipfSampler creatorActivity = new ZipfSampler(users, 1.0);
+        long multiplier = coprimeMultiplier(users, 1_000_003);
+        long[] creators = new long[plans];
+        LocalDateTime[] created = new LocalDateTime[plans];
+        LocalDateTime[] joinDeadline = new LocalDateTime[plans];
+        int totalWeight = 0;
+        for (City city : CITIES) {
+            totalWeight += city.weight();
+        }
+        List<Object[]> batch = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < plans; i++) {
+            creators[i] = userBase + scatter(creatorActivity.sample(random), users, multiplier);
+            City city = pickCity(random.nextInt(totalWeight));
+            String activity = ACTIVITIES[random.nextInt(ACTIVITIES.length)];
+
+            // 70 % por venir (hasta 4 meses), 30 % ya celebrados (hasta un año atrás)
+            boolean upcoming = random.nextInt(10) < 7;
+            LocalDateTime eventDate = upcoming
+                    ? now.plusMinutes(60 + random.nextLong(120L * 24 * 60))
+                    : now.minusMinutes(60 + random.nextLong(365L * 24 * 60));
+            LocalDateTime createdAt = eventDate.minusMinutes(60 + random.nextLong(60L * 24 * 60));
+            if (createdAt.isAfter(now)) {
+                createdAt = now.minusMinutes(random.nextLong(7L * 24 * 60));
+            }
+            created[i] = createdAt;
+            joinDeadline[i] = upcoming ? now : eventDate;
+
+            int current = 1 + joined[i];
+            String status;
+            if (random.nextInt(100) < 4) {
+                status = "CANCELLED";
+            } else if (!upcoming) {
+                status = "COMPLETED";
+            } else {
+                status = current >= capacity[i] ? "FULL" : "ACTIVE";
+            }
+
+            batch.add(new Object[]{
+                    base + i,
+                    activity + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)],
+                    activity + " en " + city.name() + ". ¡Apúntate!",
+                    categoryIds.get(random.nextInt(categoryIds.size())),
+                    creators[i],
+                    city.name(),
+                    // Dispersión gaussiana de unos 3 km alrededor del centro
+                    city.latitude() + random.nextGaussian() * 0.03,
+                    city.longitude() + random.nextGaussian() * 0.03,
+                    eventDate,
+                    capacity[i],
+                    current,
+                    status,
+                    createdAt,
+                    createdAt
+            });
+            flushIfFull(INSERT_PLAN, batch);
+        }
+        flush(INSERT_PLAN, batch);
+        logPhase("plans", plans, started);
+        return new PlanRows(creators, created, joinDeadline);
+    }
+
+    // Cada plan recibe sus participantes de un Zipf sobre usuarios: hay usuarios muy activos
+    private void insertParticipations(long base, long planBase, long userBase, int[] joined, PlanRows planRows,
+                                      SplittableRandom random) {
+        long started = System.currentTimeMillis();
+        ZipfSampler userActivity = new ZipfSampler(users, 0.9);
+        // Otro multiplicador que el de los creadores: los usuarios más activos no son los mismos
+        long multiplier = coprimeMultiplier(users, 2_000_003);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        Set<Long> members = new HashSet<>();
+        long id = base;
+
+        for (int i = 0; i < plans; i++) {
+            members.clear();
+            members.add(planRows.creators()[i]);
+            LocalDateTime from = planRows.createdAt()[i];
+            long window = Math.max(1, Duration.between(from, planRows.joinDeadline()[i]).toMinutes());
+            while (members.size() < joined[i] + 1) {
+                long userId = userBase + scatter(userActivity.sample(random), users, multiplier);
+                if (members.add(userId)) {
+                    batch.add(new Object[]{
+                            id++,
+                            planBase + i,
+                            userId,
+                            from.plusMinutes(random.nextLong(window))
+                    });
+                    flushIfFull(INSERT_PARTICIPATION, batch);
+                }
+            }
+        }
+        flush(INSERT_PARTICIPATION, batch);
+        logPhase("participations", id - base, started);
+    }
+
+    // 60 % grupos pequeños, 30 % medianos, 10 % grandes
+    private static int capacity(SplittableRandom random) {
+        int roll = random.nextInt(10);
+        if (roll < 6) {
+            return 2 + random.nextInt(9);
+        }
+        if (roll < 9) {
+            return 11 + random.nextInt(20);
+        }
+        return 31 + random.nextInt(70);
+    }
+
+    private static City pickCity(int roll) {
+        for (City city : CITIES) {
+            roll -= city.weight();
+            if (roll < 0) {
+                return city;
+            }
+        }
+        return CITIES[0];
+    }
+
+    // Rango de Zipf (1..n) -> índice 0..n-1 repartido por toda la tabla, no solo los primeros IDs
+    private static long scatter(long rank, long n, long multiplier) {
+        return (rank - 1) * multiplier % n;
+    }
+
+    private static long coprimeMultiplier(long n, long start) {
+        long multiplier = start;
+        while (gcd(multiplier, n) != 1) {
+            multiplier++;
+        }
+        return multiplier % n == 0 ? 1 : multiplier % n;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    // Igual que V2__id_sequences.sql: con el optimizador pooled la secuencia marca el final del bloque
+    private void resetSequence(String table) {
+        jdbcTemplate.queryForObject("SELECT setval('" + table + "_seq', COALESCE((SELECT MAX(id) FROM "
+                + table + "), 0) + 50, false)", Long.class);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() >= batchSize) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private static void logPhase(String what, long rows, long startedMillis) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedMillis);
+        log.info("Seeded {} {} in {} s ({} rows/s)", rows, what, elapsed / 1000, rows * 1000 / elapsed);
+    }
+}
@@ -2,10 +2,10 @@ package com.planazo.controller;
 
 import com.planazo.dto.request.ForgotPasswordRequest;
 import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.request.RefreshTokenRequest;
 import com.planazo.dto.request.RegisterRequest;
 import com.planazo.dto.request.ResetPasswordRequest;
 import com.planazo.dto.response.AuthResponse;
-import com.planazo.dto.response.UserResponse;
 import com.planazo.service.PasswordResetService;
 import com.planazo.service.UserService;
 import jakarta.validation.Valid;
@@ -31,16 +31,9 @@ public class AuthController {
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         log.info("Petición de registro recibida para email: {}", request.getEmail());
 
-        UserResponse userResponse = userService.register(request);
+        AuthResponse authResponse = userService.register(request);
 
-        LoginRequest loginRequest = LoginRequest.builder()
-                .email(request.getEmail())
-                .password(request.getPassword())
-                .build();
-
-        AuthResponse authResponse = userService.login(loginRequest);
-
-        log.info("Usuario registrado y logueado exitosamente: {}", userResponse.getEmail());
+        log.info("Usuario registrado y logueado exitosamente: {}", authResponse.getUser().getEmail());
         return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
     }
 
@@ -54,6 +47,25 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Renovar el access token (el refresh token se rota en cada uso)
+     * POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(userService.refresh(request));
+    }
+
+    /**
+     * Cerrar sesión: revoca el refresh token (el access token caduca solo en minutos)
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        userService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/verify")
     public ResponseEntity<Map<String, String>> verifyToken() {
         Map<String, String> response = new HashMap<>();
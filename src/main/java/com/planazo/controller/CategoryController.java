@@ -3,11 +3,11 @@ package com.planazo.controller;
 import com.planazo.dto.response.CategoryResponse;
 import com.planazo.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
@@ -15,14 +15,17 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    // Se devuelve el JSON ya serializado con su ETag; si coincide con If-None-Match, Spring responde 304
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories(
+    public ResponseEntity<byte[]> getAllCategories(
             @RequestParam(required = false, defaultValue = "false") boolean onlyActive
     ) {
-        List<CategoryResponse> categories = onlyActive
-                ? categoryService.getActiveCategories()
-                : categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        CategoryService.SerializedCategories categories = categoryService.getSerializedCategories(onlyActive);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(categories.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(categories.json());
     }
 
     @GetMapping("/{id}")
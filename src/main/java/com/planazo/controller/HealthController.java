@@ -2,27 +2,44 @@ package com.planazo.controller;
 
 import com.planazo.exception.BadRequestException;
 import com.planazo.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
+@Slf4j
 public class HealthController {
 
+    // Segundos máximos de espera al comprobar la conexión
+    private static final int DB_PING_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+
     @GetMapping("/health")
-    public Map<String, Object> health() {
+    public ResponseEntity<Map<String, Object>> health() {
+        boolean databaseUp = pingDatabase();
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "OK");
+        response.put("status", databaseUp ? "OK" : "DEGRADED");
         response.put("message", "PLANAZO Backend is running!");
+        response.put("database", databaseUp ? "UP" : "DOWN");
         response.put("timestamp", LocalDateTime.now());
         response.put("version", "1.0.0");
-        return response;
+        return ResponseEntity.status(databaseUp ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 
     @GetMapping("/test-error")
@@ -35,4 +52,14 @@ public class HealthController {
             throw new RuntimeException("Error genérico para prueba");
         }
     }
+
+    // Pide una conexión al pool y la valida contra la base de datos
+    private boolean pingDatabase() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(DB_PING_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            log.warn("Database health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.planazo.controller;
 
 import com.planazo.dto.response.ParticipantResponse;
 import com.planazo.dto.response.ParticipationResponse;
+import com.planazo.security.CurrentUser;
 import com.planazo.service.ParticipationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -10,7 +11,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,32 +21,26 @@ import java.util.List;
 public class ParticipationController {
 
     private final ParticipationService participationService;
+    private final CurrentUser currentUser;
 
     @PostMapping("/plans/{planId}/join")
-    public ResponseEntity<ParticipationResponse> joinPlan(
-            @PathVariable Long planId,
-            Authentication authentication
-    ) {
-        ParticipationResponse participation = participationService.joinPlan(planId, authentication.getName());
+    public ResponseEntity<ParticipationResponse> joinPlan(@PathVariable Long planId) {
+        ParticipationResponse participation = participationService.joinPlan(planId, currentUser.getId());
         return new ResponseEntity<>(participation, HttpStatus.CREATED);
     }
 
     @DeleteMapping("/plans/{planId}/leave")
-    public ResponseEntity<Void> leavePlan(
-            @PathVariable Long planId,
-            Authentication authentication
-    ) {
-        participationService.leavePlan(planId, authentication.getName());
+    public ResponseEntity<Void> leavePlan(@PathVariable Long planId) {
+        participationService.leavePlan(planId, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/plans/{planId}/participants/{userId}")
     public ResponseEntity<Void> removeParticipant(
             @PathVariable Long planId,
-            @PathVariable Long userId,
-            Authentication authentication
+            @PathVariable Long userId
     ) {
-        participationService.removeParticipant(planId, userId, authentication.getName());
+        participationService.removeParticipant(planId, userId, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
 
@@ -59,23 +53,19 @@ public class ParticipationController {
     @GetMapping("/my-participations")
     public ResponseEntity<Page<ParticipationResponse>> getMyParticipations(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            Authentication authentication
+            @RequestParam(defaultValue = "10") int size
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "joinedAt"));
         Page<ParticipationResponse> participations = participationService.getUserParticipations(
-                authentication.getName(),
+                currentUser.getId(),
                 pageable
         );
         return ResponseEntity.ok(participations);
     }
 
     @GetMapping("/plans/{planId}/check")
-    public ResponseEntity<Boolean> checkParticipation(
-            @PathVariable Long planId,
-            Authentication authentication
-    ) {
-        boolean isParticipating = participationService.isUserParticipating(planId, authentication.getName());
+    public ResponseEntity<Boolean> checkParticipation(@PathVariable Long planId) {
+        boolean isParticipating = participationService.isUserParticipating(planId, currentUser.getId());
         return ResponseEntity.ok(isParticipating);
     }
 }
@@ -2,7 +2,11 @@ package com.planazo.controller;
 
 import com.planazo.dto.request.CreatePlanRequest;
 import com.planazo.dto.request.UpdatePlanRequest;
+import com.planazo.dto.response.CursorPageResponse;
+import com.planazo.dto.response.NearbyPlanResponse;
 import com.planazo.dto.response.PlanResponse;
+import com.planazo.exception.BadRequestException;
+import com.planazo.security.CurrentUser;
 import com.planazo.service.PlanService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,24 +14,33 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/plans")
 @RequiredArgsConstructor
 public class PlanController {
 
+    // Tamaño máximo de página en los feeds por cursor
+    private static final int MAX_FEED_SIZE = 50;
+
+    // Número máximo de resultados en la búsqueda por cercanía
+    private static final int MAX_NEARBY_LIMIT = 100;
+
     private final PlanService planService;
+    private final CurrentUser currentUser;
 
     @PostMapping
     public ResponseEntity<PlanResponse> createPlan(
-            @Valid @RequestBody CreatePlanRequest request,
-            Authentication authentication
+            @Valid @RequestBody CreatePlanRequest request
     ) {
-        PlanResponse plan = planService.createPlan(request, authentication.getName());
+        PlanResponse plan = planService.createPlan(request, currentUser.getId());
         return new ResponseEntity<>(plan, HttpStatus.CREATED);
     }
 
@@ -71,6 +84,25 @@ public class PlanController {
         return ResponseEntity.ok(plans);
     }
 
+    @GetMapping("/upcoming/feed")
+    public ResponseEntity<CursorPageResponse<PlanResponse>> getUpcomingPlansFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageResponse<PlanResponse> plans = planService.getUpcomingPlansFeed(cursor, feedSize(size));
+        return ResponseEntity.ok(plans);
+    }
+
+    @GetMapping("/category/{categoryId}/feed")
+    public ResponseEntity<CursorPageResponse<PlanResponse>> getPlansByCategoryFeed(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageResponse<PlanResponse> plans = planService.getPlansByCategoryFeed(categoryId, cursor, feedSize(size));
+        return ResponseEntity.ok(plans);
+    }
+
     @GetMapping("/creator/{creatorId}")
     public ResponseEntity<Page<PlanResponse>> getPlansByCreator(
             @PathVariable Long creatorId,
@@ -83,41 +115,63 @@ public class PlanController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<PlanResponse>> searchPlansByLocation(
-            @RequestParam String location,
+    public ResponseEntity<Page<PlanResponse>> searchPlans(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String location,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<PlanResponse> plans = planService.searchPlansByLocation(location, pageable);
+
+        // q: búsqueda de texto con ranking; location: búsqueda simple por ubicación
+        Page<PlanResponse> plans;
+        if (q != null && !q.isBlank()) {
+            plans = planService.searchPlans(q, pageable);
+        } else if (location != null && !location.isBlank()) {
+            plans = planService.searchPlansByLocation(location, pageable);
+        } else {
+            throw new BadRequestException("Either q or location is required");
+        }
+        return ResponseEntity.ok(plans);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyPlanResponse>> getNearbyPlans(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT));
+        List<NearbyPlanResponse> plans = planService.getNearbyPlans(lat, lng, radiusKm, categoryId, from, to, cappedLimit);
         return ResponseEntity.ok(plans);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<PlanResponse> updatePlan(
             @PathVariable Long id,
-            @Valid @RequestBody UpdatePlanRequest request,
-            Authentication authentication
+            @Valid @RequestBody UpdatePlanRequest request
     ) {
-        PlanResponse plan = planService.updatePlan(id, request, authentication.getName());
+        PlanResponse plan = planService.updatePlan(id, request, currentUser.getId());
         return ResponseEntity.ok(plan);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletePlan(
-            @PathVariable Long id,
-            Authentication authentication
-    ) {
-        planService.deletePlan(id, authentication.getName());
+    public ResponseEntity<Void> deletePlan(@PathVariable Long id) {
+        planService.deletePlan(id, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/{id}/cancel")
-    public ResponseEntity<Void> cancelPlan(
-            @PathVariable Long id,
-            Authentication authentication
-    ) {
-        planService.cancelPlan(id, authentication.getName());
+    public ResponseEntity<Void> cancelPlan(@PathVariable Long id) {
+        planService.cancelPlan(id, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
+
+    private static int feedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_FEED_SIZE));
+    }
 }
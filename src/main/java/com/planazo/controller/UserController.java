@@ -1,14 +1,14 @@
 package com.planazo.controller;
 
+import com.planazo.dto.UserMapper;
 import com.planazo.dto.request.UpdateProfileRequest;
 import com.planazo.dto.response.UserResponse;
+import com.planazo.security.CurrentUser;
 import com.planazo.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,6 +21,7 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final CurrentUser currentUser;
 
     /**
      * Obtener el perfil del usuario autenticado
@@ -28,18 +29,9 @@ public class UserController {
      */
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser() {
-        String email = getAuthenticatedUserEmail();
-        log.info("Obteniendo perfil para usuario: {}", email);
-
-        UserResponse user = UserResponse.builder()
-                .id(userService.getUserByEmail(email).getId())
-                .email(userService.getUserByEmail(email).getEmail())
-                .name(userService.getUserByEmail(email).getName())
-                .profilePicture(userService.getUserByEmail(email).getProfilePicture())
-                .bio(userService.getUserByEmail(email).getBio())
-                .registrationDate(userService.getUserByEmail(email).getRegistrationDate())
-                .active(userService.getUserByEmail(email).getActive())
-                .build();
+        log.info("Obteniendo perfil para usuario: {}", currentUser.getEmail());
+
+        UserResponse user = UserMapper.toUserResponse(currentUser.getUser());
 
         return ResponseEntity.ok(user);
     }
@@ -50,11 +42,9 @@ public class UserController {
      */
     @PutMapping("/me")
     public ResponseEntity<UserResponse> updateProfile(@Valid @RequestBody UpdateProfileRequest request) {
-        String email = getAuthenticatedUserEmail();
-        log.info("Actualizando perfil para usuario: {}", email);
+        log.info("Actualizando perfil para usuario: {}", currentUser.getEmail());
 
-        Long userId = userService.getUserByEmail(email).getId();
-        UserResponse updatedUser = userService.updateProfile(userId, request);
+        UserResponse updatedUser = userService.updateProfile(currentUser.getId(), request);
 
         return ResponseEntity.ok(updatedUser);
     }
@@ -65,11 +55,9 @@ public class UserController {
      */
     @DeleteMapping("/me")
     public ResponseEntity<Map<String, String>> deleteAccount() {
-        String email = getAuthenticatedUserEmail();
-        log.info("Eliminando cuenta para usuario: {}", email);
+        log.info("Eliminando cuenta para usuario: {}", currentUser.getEmail());
 
-        Long userId = userService.getUserByEmail(email).getId();
-        userService.deleteAccount(userId);
+        userService.deleteAccount(currentUser.getId());
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "Cuenta eliminada exitosamente");
@@ -89,13 +77,5 @@ public class UserController {
 
         return ResponseEntity.ok(user);
     }
-
-    /**
-     * Método auxiliar para obtener el email del usuario autenticado
-     */
-    private String getAuthenticatedUserEmail() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication.getName();
-    }
 }
 
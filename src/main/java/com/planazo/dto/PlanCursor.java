@@ -0,0 +1,43 @@
+package com.planazo.dto;
+
+import com.planazo.exception.BadRequestException;
+import com.planazo.model.Plan;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un feed de planes ordenado por (eventDate, id).
+ * Se envía al cliente como un token opaco en Base64 URL-safe.
+ */
+public record PlanCursor(LocalDateTime eventDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PlanCursor of(Plan plan) {
+        return new PlanCursor(plan.getEventDate(), plan.getId());
+    }
+
+    public String encode() {
+        String raw = eventDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PlanCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new PlanCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -15,6 +15,10 @@ public class AuthResponse {
     private String type = "Bearer";
     private UserResponse user;
 
+    // Access token de vida corta (expiresIn segundos); se renueva con el refresh token
+    private String refreshToken;
+    private Long expiresIn;
+
     // Constructor que auto-asigna type = "Bearer"
     public AuthResponse(String token, UserResponse user) {
         this.token = token;
@@ -0,0 +1,23 @@
+package com.planazo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de un feed paginado por cursor: no incluye totales, solo el cursor
+ * opaco para pedir la siguiente página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private String nextCursor;
+    private Boolean hasNext;
+    private Integer size;
+}
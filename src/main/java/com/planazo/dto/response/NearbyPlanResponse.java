@@ -0,0 +1,15 @@
+package com.planazo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPlanResponse {
+    private PlanResponse plan;
+    private Double distanceKm;
+}
@@ -0,0 +1,7 @@
+package com.planazo.event;
+
+/**
+ * Se publica al crear o modificar un plan; los índices lo procesan tras el commit.
+ */
+public record PlanChangedEvent(PlanSnapshot plan) {
+}
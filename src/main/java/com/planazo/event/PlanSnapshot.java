@@ -0,0 +1,46 @@
+package com.planazo.event;
+
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de los campos de un plan que necesitan los índices en memoria.
+ * Se construye desde la entidad o directamente en JPQL al reconstruir los índices.
+ */
+public record PlanSnapshot(
+        Long id,
+        String title,
+        String description,
+        String location,
+        Double latitude,
+        Double longitude,
+        LocalDateTime eventDate,
+        Long categoryId,
+        PlanStatus status
+) {
+
+    public static PlanSnapshot of(Plan plan) {
+        return new PlanSnapshot(
+                plan.getId(),
+                plan.getTitle(),
+                plan.getDescription(),
+                plan.getLocation(),
+                plan.getLatitude(),
+                plan.getLongitude(),
+                plan.getEventDate(),
+                plan.getCategory().getId(),
+                plan.getStatus()
+        );
+    }
+
+    // Un plan sigue abierto mientras no haya pasado y no esté cancelado ni completado
+    public boolean isOpen(LocalDateTime now) {
+        return (status == PlanStatus.ACTIVE || status == PlanStatus.FULL) && eventDate.isAfter(now);
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+}
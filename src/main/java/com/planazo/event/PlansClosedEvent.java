@@ -0,0 +1,9 @@
+package com.planazo.event;
+
+import java.util.Collection;
+
+/**
+ * Se publica cuando uno o varios planes dejan de estar abiertos (cancelados, borrados o ya celebrados).
+ */
+public record PlansClosedEvent(Collection<Long> planIds) {
+}
@@ -0,0 +1,16 @@
+package com.planazo.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Segundos que se sugieren al cliente en la cabecera Retry-After
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,152 @@
+package com.planazo.job;
+
+import com.planazo.event.PlanSnapshot;
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.model.PasswordResetToken;
+import com.planazo.repository.PasswordResetTokenRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.search.PlanIndex;
+import com.planazo.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Transiciones a la hora exacta sin consultar las tablas: cada plan abierto se programa
+ * en una rueda de tiempos para su {@code eventDate} y cada token de recuperación para su
+ * {@code expiryDate}. Un tick por segundo recoge lo vencido y lo aplica en UPDATE/DELETE por lotes.
+ * <p>
+ * Como {@link PlanIndex}, {@link com.planazo.search.PlanIndexMaintainer} lo carga al arrancar
+ * y lo mantiene al día cuando se crean, modifican o cancelan planes. {@link PlanSweeper}
+ * sigue cubriendo lo que se escape (reinicios, otras instancias).
+ */
+@Component
+@ConditionalOnProperty(name = "lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LifecycleScheduler implements PlanIndex {
+
+    private static final int SLOTS_PER_LEVEL = 256;
+    private static final int LEVELS = 4;
+
+    private final PlanRepository planRepository;
+    private final PasswordResetTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final HierarchicalTimingWheel<Long> planWheel;
+    private final HierarchicalTimingWheel<Long> tokenWheel;
+
+    public LifecycleScheduler(PlanRepository planRepository,
+                              PasswordResetTokenRepository tokenRepository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${lifecycle.tick-millis:1000}") long tickMillis,
+                              @Value("${lifecycle.batch-size:500}") int batchSize) {
+        this.planRepository = planRepository;
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+
+        long now = System.currentTimeMillis();
+        this.planWheel = new HierarchicalTimingWheel<>(tickMillis, SLOTS_PER_LEVEL, LEVELS, now);
+        this.tokenWheel = new HierarchicalTimingWheel<>(tickMillis, SLOTS_PER_LEVEL, LEVELS, now);
+    }
+
+    @Override
+    public void upsert(PlanSnapshot plan) {
+        if (plan.isOpen(LocalDateTime.now())) {
+            planWheel.schedule(plan.id(), toEpochMillis(plan.eventDate()));
+        } else {
+            planWheel.cancel(plan.id());
+        }
+    }
+
+    @Override
+    public void remove(Long planId) {
+        planWheel.cancel(planId);
+    }
+
+    @Override
+    public void clear() {
+        planWheel.clear();
+    }
+
+    public void scheduleTokenExpiry(Long tokenId, LocalDateTime expiryDate) {
+        tokenWheel.schedule(tokenId, toEpochMillis(expiryDate));
+    }
+
+    // Un token ya usado no tiene que caducar: lo purga PlanSweeper
+    public void cancelTokenExpiry(Long tokenId) {
+        tokenWheel.cancel(tokenId);
+    }
+
+    public int scheduledPlans() {
+        return planWheel.size();
+    }
+
+    public int scheduledTokens() {
+        return tokenWheel.size();
+    }
+
+    // Los planes los carga PlanIndexMaintainer; aquí solo los tokens pendientes
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTokens() {
+        List<PasswordResetToken> tokens = tokenRepository.findByUsedFalseAndExpiryDateAfter(LocalDateTime.now());
+        tokens.forEach(token -> scheduleTokenExpiry(token.getId(), token.getExpiryDate()));
+        log.info("Lifecycle scheduler loaded {} pending reset tokens", tokens.size());
+    }
+
+    @Scheduled(fixedRateString = "${lifecycle.tick-millis:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        completePlans(planWheel.advance(now));
+        expireTokens(tokenWheel.advance(now));
+    }
+
+    void completePlans(List<Long> due) {
+        int completed = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            LocalDateTime now = LocalDateTime.now();
+            Integer closed = transactionTemplate.execute(status -> {
+                // La rueda puede ir por detrás de la base de datos (otra instancia retrasó la fecha, o aún
+                // no se ha reprogramado tras el commit): se vuelve a comprobar cada plan con la fila bloqueada
+                List<Long> completable = planRepository.lockCompletablePlanIds(batch, now);
+                if (completable.isEmpty()) {
+                    return 0;
+                }
+                planRepository.completePlans(completable, now);
+                // Solo salen de los índices los planes que de verdad se han cerrado
+                eventPublisher.publishEvent(new PlansClosedEvent(completable));
+                return completable.size();
+            });
+            completed += closed != null ? closed : 0;
+        }
+        if (completed > 0) {
+            log.debug("Completed {} plans at their event date", completed);
+        }
+    }
+
+    private void expireTokens(List<Long> due) {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            transactionTemplate.executeWithoutResult(status -> tokenRepository.deleteAllByIdInBatch(batch));
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,191 @@
+package com.planazo.job;
+
+import com.planazo.model.OutboxEmail;
+import com.planazo.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vacía la cola de emails (outbox) en segundo plano, así ninguna petición HTTP espera al SMTP.
+ * <p>
+ * Cada tanda se reserva en una transacción corta ({@code FOR UPDATE SKIP LOCKED}, sumando un
+ * intento y aplazando {@code next_attempt_at} lo que dura {@code mail.outbox.lease}) y se envía
+ * fuera de ella por una sola conexión SMTP, sin retener una conexión a la base de datos. Si la
+ * instancia cae a mitad de envío, otra lo reintenta al vencer la reserva: la entrega es
+ * "al menos una vez". Los fallos se reintentan con espera exponencial hasta
+ * {@code mail.outbox.max-attempts}.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MailOutboxSender {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String from;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration retention;
+
+    private final Counter sentEmails;
+    private final Counter failedEmails;
+
+    public MailOutboxSender(OutboxEmailRepository outboxEmailRepository,
+                            JavaMailSender mailSender,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${mail.from:no-reply@planazo.com}") String from,
+                            @Value("${mail.outbox.batch-size:50}") int batchSize,
+                            @Value("${mail.outbox.max-batches:20}") int maxBatches,
+                            @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                            @Value("${mail.outbox.lease:PT1M}") Duration lease,
+                            @Value("${mail.outbox.retry-backoff:PT30S}") Duration retryBackoff,
+                            @Value("${mail.outbox.retention:P7D}") Duration retention) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+
+        this.sentEmails = Counter.builder("planazo.mail.sent")
+                .description("Emails entregados al servidor SMTP")
+                .register(meterRegistry);
+        this.failedEmails = Counter.builder("planazo.mail.failed")
+                .description("Intentos de envío fallidos")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.interval:PT5S}", initialDelayString = "${mail.outbox.initial-delay:PT10S}")
+    public void drain() {
+        int sent = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int claimed = sendBatch();
+            sent += claimed;
+            if (claimed < batchSize) {
+                break;
+            }
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer purged = transactionTemplate.execute(status -> outboxEmailRepository.deleteSentBefore(cutoff));
+        if (sent > 0 || (purged != null && purged > 0)) {
+            log.info("Mail outbox processed {} emails and purged {} sent ones", sent, purged);
+        }
+    }
+
+    // Reserva, envía y marca una tanda; devuelve cuántos emails se reservaron
+    int sendBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> claimed = transactionTemplate.execute(status -> {
+            List<OutboxEmail> due = outboxEmailRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            for (OutboxEmail email : due) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, OutboxEmail> messages = new IdentityHashMap<>();
+        for (OutboxEmail email : claimed) {
+            messages.put(toMessage(email), email);
+        }
+
+        Map<OutboxEmail, Exception> failures = send(messages);
+        List<Long> sentIds = new ArrayList<>();
+        for (OutboxEmail email : claimed) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+            }
+        }
+
+        LocalDateTime finished = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEmailRepository.markSent(sentIds, finished);
+            }
+            failures.forEach((email, error) -> outboxEmailRepository.markFailed(
+                    email.getId(), maxAttempts, finished.plus(backoff(email.getAttempts())), describe(error)));
+        });
+
+        sentEmails.increment(sentIds.size());
+        failedEmails.increment(failures.size());
+        if (!failures.isEmpty()) {
+            log.warn("Mail outbox: {} of {} emails failed, will retry", failures.size(), claimed.size());
+        }
+        return claimed.size();
+    }
+
+    // Todos por la misma conexión; MailSendException indica cuáles fallaron
+    private Map<OutboxEmail, Exception> send(Map<SimpleMailMessage, OutboxEmail> messages) {
+        Map<OutboxEmail, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> failures.put(email, e));
+            } else {
+                e.getFailedMessages().forEach((message, error) -> {
+                    OutboxEmail email = messages.get(message);
+                    if (email != null) {
+                        failures.put(email, error);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Conexión o autenticación: no ha salido ninguno
+            messages.values().forEach(email -> failures.put(email, e));
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage toMessage(OutboxEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    // 30 s, 1 min, 2 min, 4 min... con los valores por defecto
+    private Duration backoff(int attempts) {
+        return retryBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 10));
+    }
+
+    private static String describe(Exception error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,169 @@
+package com.planazo.job;
+
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.repository.PasswordResetTokenRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tarea periódica de limpieza: pasa a COMPLETED los planes cuya fecha ya pasó y borra
+ * los tokens de recuperación usados o caducados y los refresh tokens caducados.
+ * <p>
+ * Trabaja por tandas de {@code sweeper.batch-size} filas, cada una en su propia transacción,
+ * para que ningún UPDATE o DELETE mantenga bloqueos mucho tiempo. {@code sweeper.max-batches}
+ * acota el trabajo de cada ejecución; lo que quede se procesa en la siguiente.
+ */
+@Component
+@ConditionalOnProperty(name = "sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PlanSweeper {
+
+    private final PlanRepository planRepository;
+    private final PasswordResetTokenRepository tokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter completedPlans;
+    private final Counter purgedTokens;
+    private final Counter purgedRefreshTokens;
+    private final Counter batches;
+    private final Timer runTimer;
+
+    public PlanSweeper(PlanRepository planRepository,
+                       PasswordResetTokenRepository tokenRepository,
+                       RefreshTokenRepository refreshTokenRepository,
+                       TransactionTemplate transactionTemplate,
+                       ApplicationEventPublisher eventPublisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${sweeper.batch-size:500}") int batchSize,
+                       @Value("${sweeper.max-batches:100}") int maxBatches) {
+        this.planRepository = planRepository;
+        this.tokenRepository = tokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        this.completedPlans = Counter.builder("planazo.sweeper.plans.completed")
+                .description("Planes pasados marcados como COMPLETED")
+                .register(meterRegistry);
+        this.purgedTokens = Counter.builder("planazo.sweeper.reset_tokens.purged")
+                .description("Tokens de recuperación usados o caducados borrados")
+                .register(meterRegistry);
+        this.purgedRefreshTokens = Counter.builder("planazo.sweeper.refresh_tokens.purged")
+                .description("Refresh tokens caducados borrados")
+                .register(meterRegistry);
+        this.batches = Counter.builder("planazo.sweeper.batches")
+                .description("Tandas ejecutadas por el sweeper")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("planazo.sweeper.run")
+                .description("Duración de cada ejecución del sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sweeper.interval:PT5M}", initialDelayString = "${sweeper.initial-delay:PT1M}")
+    public void sweep() {
+        runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int plans = completePastPlans(now);
+            int tokens = purgeResetTokens(now);
+            int refreshTokens = purgeRefreshTokens(now);
+            if (plans > 0 || tokens > 0 || refreshTokens > 0) {
+                log.info("Sweeper completed {} past plans and purged {} reset tokens and {} refresh tokens",
+                        plans, tokens, refreshTokens);
+            }
+        });
+    }
+
+    int completePastPlans(LocalDateTime now) {
+        Pageable batch = PageRequest.of(0, batchSize);
+        int total = 0;
+
+        for (int i = 0; i < maxBatches; i++) {
+            PlanBatch result = transactionTemplate.execute(status -> {
+                List<Long> pastPlans = planRepository.findPastOpenPlanIds(now, batch);
+                if (pastPlans.isEmpty()) {
+                    return new PlanBatch(0, 0);
+                }
+                // El UPDATE vuelve a filtrar por estado: los planes cancelados entre medias no se cuentan
+                int updated = planRepository.completePlans(pastPlans, now);
+                // Se publica dentro de la transacción para que los índices lo apliquen tras el commit
+                eventPublisher.publishEvent(new PlansClosedEvent(pastPlans));
+                return new PlanBatch(pastPlans.size(), updated);
+            });
+
+            if (result == null || result.found() == 0) {
+                break;
+            }
+            batches.increment();
+            completedPlans.increment(result.updated());
+            total += result.updated();
+            if (result.found() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Filas seleccionadas en la tanda (para decidir si seguir) y filas realmente actualizadas
+    private record PlanBatch(int found, int updated) {
+    }
+
+    int purgeResetTokens(LocalDateTime now) {
+        return purgeInBatches(batch -> tokenRepository.findPurgeableIds(now, batch),
+                tokenRepository::deleteAllByIdInBatch, purgedTokens);
+    }
+
+    int purgeRefreshTokens(LocalDateTime now) {
+        return purgeInBatches(batch -> refreshTokenRepository.findExpiredIds(now, batch),
+                refreshTokenRepository::deleteAllByIdInBatch, purgedRefreshTokens);
+    }
+
+    // Busca y borra IDs por tandas, cada una en su propia transacción
+    private int purgeInBatches(Function<Pageable, List<Long>> finder, Consumer<List<Long>> deleter, Counter purged) {
+        Pageable batch = PageRequest.of(0, batchSize);
+        int total = 0;
+
+        for (int i = 0; i < maxBatches; i++) {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> purgeable = finder.apply(batch);
+                if (!purgeable.isEmpty()) {
+                    deleter.accept(purgeable);
+                }
+                return purgeable;
+            });
+
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            batches.increment();
+            purged.increment(ids.size());
+            total += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package com.planazo.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Envuelve un {@link DataSource} con proxies JDK que miden cada ejecución de sentencia
+ * y la anotan en la {@link QueryStats} del hilo actual. El resto de llamadas
+ * (incluido {@code unwrap}) se delegan tal cual.
+ */
+public final class CountingDataSource {
+
+    private CountingDataSource() {
+    }
+
+    // Interfaz marcador para no envolver dos veces
+    interface Counting {
+    }
+
+    public static DataSource wrap(DataSource target) {
+        if (target instanceof Counting) {
+            return target;
+        }
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return wrapConnection(connection);
+            }
+            return result;
+        }, Counting.class);
+    }
+
+    private static Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                return wrapStatement(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                return wrapStatement(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return wrapStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S target, String preparedSql) {
+        return proxy(type, target, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            // En un Statement simple el SQL llega como argumento de execute*
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                QueryStats.record(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler, Class<?>... extra) {
+        Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), interfaces, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.planazo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las sentencias SQL y el tiempo de JDBC de cada petición: los publica en
+ * {@code planazo.http.queries} y {@code planazo.http.jdbc}, los devuelve en la cabecera
+ * {@code Server-Timing} y avisa en el log cuando se supera el presupuesto o alguna
+ * sentencia se repite lo suficiente como para oler a N+1.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int repeatThreshold;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${query-budget.max-statements:20}") int maxStatements,
+                                @Value("${query-budget.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, stats);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            QueryStats.end();
+            // Si nadie llegó a escribir el cuerpo la respuesta sigue abierta y aún admite cabeceras
+            if (!response.isCommitted()) {
+                timedResponse.writeServerTiming();
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("planazo.http.queries")
+                .description("Sentencias SQL por petición")
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        Timer.builder("planazo.http.jdbc")
+                .description("Tiempo total en JDBC por petición")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatThreshold);
+        if (stats.getCount() > maxStatements) {
+            log.warn("{} {} ran {} SQL statements (budget {}) in {} ms; repeated shapes: {}",
+                    request.getMethod(), uri, stats.getCount(), maxStatements,
+                    formatMillis(stats), repeated.isEmpty() ? stats.repeatedShapes(2) : repeated);
+        } else if (!repeated.isEmpty()) {
+            log.warn("Possible N+1 in {} {}: {}", request.getMethod(), uri, repeated);
+        }
+    }
+
+    private static String formatMillis(QueryStats stats) {
+        return String.format(Locale.ROOT, "%.1f", stats.getJdbcMillis());
+    }
+
+    // Añade Server-Timing justo antes de que se confirme la respuesta, cuando aún se pueden tocar cabeceras
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeServerTiming();
+        }
+
+        void writeServerTiming() {
+            if (!written) {
+                written = true;
+                addHeader(SERVER_TIMING, "db;dur=" + formatMillis(stats) + ";desc=\"" + stats.getCount() + " queries\"");
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.planazo.model;
+
+public enum OutboxStatus {
+    PENDING,     // Pendiente de enviar (o de reintentar)
+    SENT,        // Entregado al servidor SMTP
+    FAILED       // Agotados los reintentos
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Participation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participations_seq")
+    @SequenceGenerator(name = "participations_seq", sequenceName = "participations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
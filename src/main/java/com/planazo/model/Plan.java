@@ -5,19 +5,28 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "plans")
+@Table(name = "plans") // Índices en db/migration/V3__query_indexes.sql
+@NamedEntityGraph(
+        name = Plan.WITH_CATEGORY_AND_CREATOR,
+        attributeNodes = {@NamedAttributeNode("category"), @NamedAttributeNode("creator")}
+)
+@DynamicUpdate // current_participants solo lo escriben los UPDATE atómicos del repositorio
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Plan {
 
+    public static final String WITH_CATEGORY_AND_CREATOR = "Plan.withCategoryAndCreator";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plans_seq")
+    @SequenceGenerator(name = "plans_seq", sequenceName = "plans_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -43,6 +44,11 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Va en el claim "epoch" de los access tokens; incrementarla invalida todos los emitidos antes
+    @Builder.Default
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch = 0;
+
     // Método auxiliar para antes de persistir
     @PrePersist
     protected void onCreate() {
@@ -50,5 +56,10 @@ public class User {
             active = true;
         }
     }
+
+    // Revoca todos los access tokens emitidos hasta ahora
+    public void revokeTokens() {
+        tokenEpoch++;
+    }
 }
 
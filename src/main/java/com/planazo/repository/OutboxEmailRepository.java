@@ -0,0 +1,46 @@
+package com.planazo.repository;
+
+import com.planazo.model.OutboxEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    // Emails listos para enviar. FOR UPDATE SKIP LOCKED (timeout -2): varias instancias
+    // pueden drenar la cola a la vez sin esperarse ni repartirse las mismas filas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEmail e WHERE e.status = com.planazo.model.OutboxStatus.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<OutboxEmail> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = com.planazo.model.OutboxStatus.SENT, e.sentAt = :now, "
+            + "e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Vuelve a la cola para más tarde, o se da por perdido si ya no quedan intentos
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = CASE WHEN e.attempts >= :maxAttempts "
+            + "THEN com.planazo.model.OutboxStatus.FAILED ELSE com.planazo.model.OutboxStatus.PENDING END, "
+            + "e.nextAttemptAt = :retryAt, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("maxAttempts") int maxAttempts,
+                   @Param("retryAt") LocalDateTime retryAt, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = com.planazo.model.OutboxStatus.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
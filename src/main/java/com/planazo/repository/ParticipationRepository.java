@@ -5,11 +5,14 @@ import com.planazo.model.ParticipationStatus;
 import com.planazo.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,7 +28,8 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
     // Listar participaciones confirmadas de un plan
     List<Participation> findByPlanIdAndStatus(Long planId, ParticipationStatus status);
 
-    // Listar planes a los que un usuario se ha unido (confirmados)
+    // Listar planes a los que un usuario se ha unido (confirmados), con el usuario ya cargado
+    @EntityGraph(attributePaths = "user")
     Page<Participation> findByUserIdAndStatus(Long userId, ParticipationStatus status, Pageable pageable);
 
     // Contar participantes confirmados en un plan
@@ -34,4 +38,32 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
     // Obtener todos los usuarios participantes de un plan
     @Query("SELECT p.user FROM Participation p WHERE p.plan.id = :planId AND p.status = :status")
     List<User> findUsersByPlanIdAndStatus(@Param("planId") Long planId, @Param("status") ParticipationStatus status);
+
+    // Volver a confirmar una participación previa (LEFT o REMOVED) solo si no lo está ya.
+    // Limpia el contexto de persistencia: la entidad cargada antes queda obsoleta y hay que releerla
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Participation p SET p.status = :confirmed, p.leftAt = NULL, p.joinedAt = :now " +
+            "WHERE p.plan.id = :planId AND p.user.id = :userId AND p.status <> :confirmed")
+    int reactivate(@Param("planId") Long planId,
+                   @Param("userId") Long userId,
+                   @Param("confirmed") ParticipationStatus confirmed,
+                   @Param("now") LocalDateTime now);
+
+    default int reactivate(Long planId, Long userId, LocalDateTime now) {
+        return reactivate(planId, userId, ParticipationStatus.CONFIRMED, now);
+    }
+
+    // Terminar una participación confirmada (LEFT o REMOVED) sin leerla antes
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Participation p SET p.status = :newStatus, p.leftAt = :now " +
+            "WHERE p.plan.id = :planId AND p.user.id = :userId AND p.status = :confirmed")
+    int endParticipation(@Param("planId") Long planId,
+                         @Param("userId") Long userId,
+                         @Param("newStatus") ParticipationStatus newStatus,
+                         @Param("now") LocalDateTime now,
+                         @Param("confirmed") ParticipationStatus confirmed);
+
+    default int endParticipation(Long planId, Long userId, ParticipationStatus newStatus, LocalDateTime now) {
+        return endParticipation(planId, userId, newStatus, now, ParticipationStatus.CONFIRMED);
+    }
 }
@@ -1,16 +1,38 @@
 package com.planazo.repository;
 
 import com.planazo.model.PasswordResetToken;
-import com.planazo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
 
-    Optional<PasswordResetToken> findByToken(String token);
+    // Con el usuario ya cargado: se actualiza su contraseña en la misma operación
+    @Query("SELECT t FROM PasswordResetToken t JOIN FETCH t.user WHERE t.tokenHash = :hash")
+    Optional<PasswordResetToken> findByTokenHash(@Param("hash") String tokenHash);
 
-    void deleteByUser(User user);
+    // Un solo DELETE (el derivado deleteByUser cargaba y borraba las filas una a una)
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Marcar el token como usado solo si nadie lo ha hecho antes: 0 filas si otra petición se adelantó
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.used = true WHERE t.id = :id AND t.used = false")
+    int markUsed(@Param("id") Long id);
+
+    // Tokens pendientes de caducar, para programar su expiración al arrancar
+    List<PasswordResetToken> findByUsedFalseAndExpiryDateAfter(LocalDateTime now);
+
+    // IDs de tokens ya usados o caducados, por tandas, para purgarlos
+    @Query("SELECT t.id FROM PasswordResetToken t WHERE t.used = true OR t.expiryDate < :now ORDER BY t.id")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, Pageable pageable);
 }
@@ -1,39 +1,181 @@
 package com.planazo.repository;
 
+import com.planazo.event.PlanSnapshot;
 import com.planazo.model.Plan;
 import com.planazo.model.PlanStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlanRepository extends JpaRepository<Plan, Long> {
 
+    // Todos los listados cargan categoría y creador en la misma consulta (evita el N+1 del mapper).
+    // Son relaciones ManyToOne, así que el fetch join no rompe la paginación.
+
+    // Listar todos los planes
+    @Override
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    Page<Plan> findAll(Pageable pageable);
+
+    // Detalle de un plan con categoría y creador
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    Optional<Plan> findDetailedById(Long id);
+
     // Buscar planes por estado
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     Page<Plan> findByStatus(PlanStatus status, Pageable pageable);
 
     // Buscar planes activos
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     Page<Plan> findByStatusAndEventDateAfter(PlanStatus status, LocalDateTime date, Pageable pageable);
 
     // Buscar planes por categoría
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     Page<Plan> findByCategoryIdAndStatus(Long categoryId, PlanStatus status, Pageable pageable);
 
     // Buscar planes creados por un usuario
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     Page<Plan> findByCreatorId(Long creatorId, Pageable pageable);
 
     // Buscar planes por ubicación (búsqueda simple)
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     Page<Plan> findByLocationContainingIgnoreCaseAndStatus(String location, PlanStatus status, Pageable pageable);
 
     // Buscar planes próximos (activos y con fecha futura)
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
     @Query("SELECT p FROM Plan p WHERE p.status = :status AND p.eventDate > :now ORDER BY p.eventDate ASC")
     Page<Plan> findUpcomingPlans(@Param("status") PlanStatus status, @Param("now") LocalDateTime now, Pageable pageable);
 
+    // Feeds por cursor (keyset): orden estable por (eventDate, id) y sin consulta de conteo.
+    // El Slice pide una fila de más para saber si hay siguiente página.
+
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    @Query("SELECT p FROM Plan p WHERE p.status = :status AND p.eventDate > :now " +
+            "ORDER BY p.eventDate ASC, p.id ASC")
+    Slice<Plan> findUpcomingFeed(@Param("status") PlanStatus status,
+                                 @Param("now") LocalDateTime now,
+                                 Pageable pageable);
+
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    @Query("SELECT p FROM Plan p WHERE p.status = :status AND p.eventDate > :now " +
+            "AND (p.eventDate > :afterDate OR (p.eventDate = :afterDate AND p.id > :afterId)) " +
+            "ORDER BY p.eventDate ASC, p.id ASC")
+    Slice<Plan> findUpcomingFeedAfter(@Param("status") PlanStatus status,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("afterDate") LocalDateTime afterDate,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    @Query("SELECT p FROM Plan p WHERE p.category.id = :categoryId AND p.status = :status " +
+            "ORDER BY p.eventDate ASC, p.id ASC")
+    Slice<Plan> findCategoryFeed(@Param("categoryId") Long categoryId,
+                                 @Param("status") PlanStatus status,
+                                 Pageable pageable);
+
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    @Query("SELECT p FROM Plan p WHERE p.category.id = :categoryId AND p.status = :status " +
+            "AND (p.eventDate > :afterDate OR (p.eventDate = :afterDate AND p.id > :afterId)) " +
+            "ORDER BY p.eventDate ASC, p.id ASC")
+    Slice<Plan> findCategoryFeedAfter(@Param("categoryId") Long categoryId,
+                                      @Param("status") PlanStatus status,
+                                      @Param("afterDate") LocalDateTime afterDate,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    // Hidratar resultados de los índices en memoria; el estado se vuelve a comprobar en base de datos
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    List<Plan> findByIdInAndStatus(Collection<Long> ids, PlanStatus status);
+
+    @EntityGraph(Plan.WITH_CATEGORY_AND_CREATOR)
+    List<Plan> findByIdInAndStatusIn(Collection<Long> ids, Collection<PlanStatus> statuses);
+
+    // Solo los IDs: para descartar aciertos de los índices en memoria que ya no están abiertos
+    @Query("SELECT p.id FROM Plan p WHERE p.id IN :ids AND p.status IN :statuses")
+    List<Long> findIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                        @Param("statuses") Collection<PlanStatus> statuses);
+
+    // Recorrer en streaming los planes abiertos para reconstruir los índices en memoria
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.planazo.event.PlanSnapshot(p.id, p.title, p.description, p.location, " +
+            "p.latitude, p.longitude, p.eventDate, p.category.id, p.status) " +
+            "FROM Plan p WHERE p.status IN :statuses AND p.eventDate > :now")
+    Stream<PlanSnapshot> streamOpenPlans(@Param("statuses") Collection<PlanStatus> statuses,
+                                         @Param("now") LocalDateTime now);
+
+    // IDs de planes abiertos cuya fecha ya pasó, por tandas (usa el índice parcial de planes abiertos)
+    @Query("SELECT p.id FROM Plan p " +
+            "WHERE p.status IN (com.planazo.model.PlanStatus.ACTIVE, com.planazo.model.PlanStatus.FULL) " +
+            "AND p.eventDate <= :now ORDER BY p.eventDate ASC, p.id ASC")
+    List<Long> findPastOpenPlanIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // De una tanda de IDs, los que siguen abiertos y con la fecha ya pasada, bloqueados hasta el commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Plan p WHERE p.id IN :ids " +
+            "AND p.status IN (com.planazo.model.PlanStatus.ACTIVE, com.planazo.model.PlanStatus.FULL) " +
+            "AND p.eventDate <= :now")
+    List<Long> lockCompletablePlanIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Marcar como COMPLETED una tanda de planes; los filtros de estado y fecha evitan pisar una
+    // cancelación concurrente o cerrar un plan cuya fecha se ha retrasado
+    @Modifying
+    @Query("UPDATE Plan p SET p.status = com.planazo.model.PlanStatus.COMPLETED, p.updatedAt = :now " +
+            "WHERE p.id IN :ids " +
+            "AND p.status IN (com.planazo.model.PlanStatus.ACTIVE, com.planazo.model.PlanStatus.FULL) " +
+            "AND p.eventDate <= :now")
+    int completePlans(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // Contar planes activos de un usuario
     long countByCreatorIdAndStatus(Long creatorId, PlanStatus status);
+
+    // Reservar una plaza en un único UPDATE condicional: solo si el plan está activo, no ha pasado,
+    // queda hueco y quien se une no es el creador. Si se ocupa la última plaza pasa a FULL.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Plan p SET p.currentParticipants = p.currentParticipants + 1, " +
+            "p.status = CASE WHEN p.currentParticipants + 1 >= p.maxParticipants THEN :full ELSE p.status END, " +
+            "p.updatedAt = :now " +
+            "WHERE p.id = :planId AND p.status = :active AND p.currentParticipants < p.maxParticipants " +
+            "AND p.eventDate > :now AND p.creator.id <> :userId")
+    int claimSeat(@Param("planId") Long planId,
+                  @Param("userId") Long userId,
+                  @Param("now") LocalDateTime now,
+                  @Param("active") PlanStatus active,
+                  @Param("full") PlanStatus full);
+
+    default int claimSeat(Long planId, Long userId, LocalDateTime now) {
+        return claimSeat(planId, userId, now, PlanStatus.ACTIVE, PlanStatus.FULL);
+    }
+
+    // Liberar una plaza; si el plan estaba FULL vuelve a ACTIVE. El creador siempre ocupa una.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Plan p SET p.currentParticipants = p.currentParticipants - 1, " +
+            "p.status = CASE WHEN p.status = :full THEN :active ELSE p.status END, " +
+            "p.updatedAt = :now " +
+            "WHERE p.id = :planId AND p.currentParticipants > 1")
+    int releaseSeat(@Param("planId") Long planId,
+                    @Param("now") LocalDateTime now,
+                    @Param("active") PlanStatus active,
+                    @Param("full") PlanStatus full);
+
+    default int releaseSeat(Long planId, LocalDateTime now) {
+        return releaseSeat(planId, now, PlanStatus.ACTIVE, PlanStatus.FULL);
+    }
 }
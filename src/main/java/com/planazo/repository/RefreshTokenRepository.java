@@ -0,0 +1,40 @@
+package com.planazo.repository;
+
+import com.planazo.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Con el usuario ya cargado: se usa fuera de la transacción para construir la respuesta
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :hash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("hash") String tokenHash);
+
+    // Marca el token como rotado solo si nadie lo ha hecho antes (dos refresh simultáneos: gana uno)
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Revoca una sesión entera (logout o reutilización detectada)
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
+    // Revoca todas las sesiones de un usuario
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // IDs de tokens caducados, por tandas, para purgarlos
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiresAt < :now ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
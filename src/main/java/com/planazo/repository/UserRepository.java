@@ -1,8 +1,13 @@
 package com.planazo.repository;
 
 import com.planazo.model.User;
+import com.planazo.security.UserAuthState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +21,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Verificar si existe un email
     boolean existsByEmail(String email);
 
+    // Obtener solo el flag de activo y la época de tokens (sin cargar la entidad)
+    @Query("SELECT new com.planazo.security.UserAuthState(u.active, u.tokenEpoch) FROM User u WHERE u.id = :id")
+    Optional<UserAuthState> findAuthStateById(@Param("id") Long id);
+
+    // Sustituir el hash de la contraseña (rehash en el login). Transacción propia: el login no abre ninguna
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :hash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash);
+
     // Buscar usuarios activos por nombre (búsqueda parcial)
     List<User> findByNameContainingIgnoreCaseAndActiveTrue(String nombre);
 }
@@ -0,0 +1,174 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice espacial en memoria de los planes abiertos con coordenadas.
+ * Reparte los planes en una rejilla de celdas de {@value #CELL_DEGREES} grados (~5 km)
+ * y una búsqueda por radio solo recorre las celdas que tocan su caja envolvente.
+ */
+@Component
+public class PlanGeoIndex implements PlanIndex {
+
+    static final double CELL_DEGREES = 0.05;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record GeoHit(Long planId, double distanceKm) {
+    }
+
+    private record Entry(Long planId, double latitude, double longitude, Long categoryId,
+                         LocalDateTime eventDate, long cell) {
+    }
+
+    @Override
+    public void upsert(PlanSnapshot plan) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(plan.id());
+            if (!plan.hasCoordinates()) {
+                return;
+            }
+            long cell = cellKey(latCell(plan.latitude()), lngCell(plan.longitude()));
+            Entry entry = new Entry(plan.id(), plan.latitude(), plan.longitude(),
+                    plan.categoryId(), plan.eventDate(), cell);
+            entriesById.put(plan.id(), entry);
+            cells.computeIfAbsent(cell, key -> new ArrayList<>()).add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long planId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(planId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            entriesById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Planes a menos de {@code radiusKm} del punto, ordenados por distancia.
+     * {@code categoryId}, {@code from} y {@code to} son filtros opcionales (null = sin filtro).
+     */
+    public List<GeoHit> search(double latitude, double longitude, double radiusKm,
+                               Long categoryId, LocalDateTime from, LocalDateTime to) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        // Cerca de los polos la caja cubre todas las longitudes
+        double lngDelta = cosLat < 1e-6 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        double minLng = Math.max(-180, longitude - lngDelta);
+        double maxLng = Math.min(180, longitude + lngDelta);
+
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int latCell = latCell(minLat); latCell <= latCell(maxLat); latCell++) {
+                for (int lngCell = lngCell(minLng); lngCell <= lngCell(maxLng); lngCell++) {
+                    List<Entry> entries = cells.get(cellKey(latCell, lngCell));
+                    if (entries == null) {
+                        continue;
+                    }
+                    for (Entry entry : entries) {
+                        if (!matches(entry, categoryId, from, to)
+                                || entry.latitude() < minLat || entry.latitude() > maxLat
+                                || entry.longitude() < minLng || entry.longitude() > maxLng) {
+                            continue;
+                        }
+                        double distance = haversineKm(latitude, longitude, entry.latitude(), entry.longitude());
+                        if (distance <= radiusKm) {
+                            hits.add(new GeoHit(entry.planId(), distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+        return hits;
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static boolean matches(Entry entry, Long categoryId, LocalDateTime from, LocalDateTime to) {
+        if (categoryId != null && !categoryId.equals(entry.categoryId())) {
+            return false;
+        }
+        if (from != null && entry.eventDate().isBefore(from)) {
+            return false;
+        }
+        return to == null || !entry.eventDate().isAfter(to);
+    }
+
+    private void removeLocked(Long planId) {
+        Entry previous = entriesById.remove(planId);
+        if (previous == null) {
+            return;
+        }
+        List<Entry> entries = cells.get(previous.cell());
+        entries.remove(previous);
+        if (entries.isEmpty()) {
+            cells.remove(previous.cell());
+        }
+    }
+
+    private static int latCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int lngCell(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
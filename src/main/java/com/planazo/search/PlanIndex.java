@@ -0,0 +1,22 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanSnapshot;
+
+import java.util.Collection;
+
+/**
+ * Índice en memoria sobre los planes abiertos. {@link PlanIndexMaintainer} lo carga al
+ * arrancar y lo mantiene al día con los eventos de planes.
+ */
+public interface PlanIndex {
+
+    void upsert(PlanSnapshot plan);
+
+    void remove(Long planId);
+
+    void clear();
+
+    default void removeAll(Collection<Long> planIds) {
+        planIds.forEach(this::remove);
+    }
+}
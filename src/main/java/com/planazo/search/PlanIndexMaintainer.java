@@ -0,0 +1,65 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanChangedEvent;
+import com.planazo.event.PlanSnapshot;
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.model.PlanStatus;
+import com.planazo.repository.PlanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene sincronizados todos los {@link PlanIndex}: los reconstruye al arrancar
+ * leyendo la tabla en streaming y aplica los cambios cuando la transacción confirma.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlanIndexMaintainer {
+
+    private static final List<PlanStatus> OPEN_STATUSES = List.of(PlanStatus.ACTIVE, PlanStatus.FULL);
+
+    private final List<PlanIndex> indexes;
+    private final PlanRepository planRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        indexes.forEach(PlanIndex::clear);
+
+        AtomicLong count = new AtomicLong();
+        try (Stream<PlanSnapshot> plans = planRepository.streamOpenPlans(OPEN_STATUSES, LocalDateTime.now())) {
+            plans.forEach(plan -> {
+                indexes.forEach(index -> index.upsert(plan));
+                count.incrementAndGet();
+            });
+        }
+
+        log.info("Plan indexes rebuilt with {} open plans", count.get());
+    }
+
+    @TransactionalEventListener
+    public void onPlanChanged(PlanChangedEvent event) {
+        PlanSnapshot plan = event.plan();
+        if (plan.isOpen(LocalDateTime.now())) {
+            indexes.forEach(index -> index.upsert(plan));
+        } else {
+            indexes.forEach(index -> index.remove(plan.id()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPlansClosed(PlansClosedEvent event) {
+        indexes.forEach(index -> index.removeAll(event.planIds()));
+    }
+}
@@ -0,0 +1,264 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre título, descripción y ubicación de los planes abiertos.
+ * Cada término apunta a una lista de documentos en arrays de int; el peso de cada aparición
+ * depende del campo (título 3, ubicación 2, descripción 1) y el ranking es tipo BM25.
+ * <p>
+ * Los documentos borrados o modificados se marcan como eliminados y se compacta el índice
+ * cuando superan a los vivos.
+ */
+@Component
+public class PlanTextIndex implements PlanIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Parámetros habituales de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByPlanId = new HashMap<>();
+    private long[] planIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    // Listas en las que aparece cada documento, para actualizar sus contadores al borrarlo
+    private PostingList[][] docPostings = new PostingList[1024][];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record TextHit(Long planId, double score) {
+    }
+
+    @Override
+    public void upsert(PlanSnapshot plan) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, plan.title(), TITLE_WEIGHT);
+        addField(weights, plan.location(), LOCATION_WEIGHT);
+        addField(weights, plan.description(), DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(plan.id());
+            if (weights.isEmpty()) {
+                return;
+            }
+
+            int doc = docCount++;
+            ensureCapacity(docCount);
+            int length = 0;
+            PostingList[] lists = new PostingList[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> term : weights.entrySet()) {
+                PostingList list = postings.computeIfAbsent(term.getKey(), key -> new PostingList());
+                list.add(doc, term.getValue());
+                lists[i++] = list;
+                length += term.getValue();
+            }
+            planIds[doc] = plan.id();
+            docPostings[doc] = lists;
+            docLengths[doc] = length;
+            totalLength += length;
+            docByPlanId.put(plan.id(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long planId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(planId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docByPlanId.clear();
+            Arrays.fill(docPostings, 0, docCount, null);
+            deleted.clear();
+            docCount = 0;
+            deletedCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByPlanId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Planes que contienen algún término de la consulta, de mayor a menor relevancia.
+     */
+    public List<TextHit> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.tokens(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByPlanId.size();
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / liveDocs;
+
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocs - list.live + 0.5) / (list.live + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    int weight = list.weights[i];
+                    double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores.merge(doc, idf * weight * (K1 + 1) / (weight + norm), Double::sum);
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .map(entry -> new TextHit(planIds[entry.getKey()], entry.getValue()))
+                    .sorted(Comparator.comparingDouble(TextHit::score).reversed()
+                            .thenComparing(TextHit::planId))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int fieldWeight) {
+        for (String token : TextAnalyzer.tokens(text)) {
+            weights.merge(token, fieldWeight, Integer::sum);
+        }
+    }
+
+    private void removeLocked(Long planId) {
+        Integer doc = docByPlanId.remove(planId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        totalLength -= docLengths[doc];
+        // Las listas guardan cuántos documentos vivos tienen para calcular el idf
+        for (PostingList list : docPostings[doc]) {
+            list.live--;
+        }
+        docPostings[doc] = null;
+
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount > docByPlanId.size()) {
+            compact();
+        }
+    }
+
+    // Renumera los documentos vivos y descarta los eliminados de todas las listas
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                planIds[next] = planIds[doc];
+                docLengths[next] = docLengths[doc];
+                docPostings[next] = docPostings[doc];
+                docByPlanId.put(planIds[next], next);
+                next++;
+            }
+        }
+
+        postings.values().removeIf(list -> list.compact(remap) == 0);
+        Arrays.fill(docPostings, next, docCount, null);
+        docCount = next;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > planIds.length) {
+            int newLength = Math.max(capacity, planIds.length * 2);
+            planIds = Arrays.copyOf(planIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+            docPostings = Arrays.copyOf(docPostings, newLength);
+        }
+    }
+
+    /**
+     * Lista de documentos de un término. Los ids se añaden en orden creciente,
+     * así que la lista está siempre ordenada.
+     */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+        private int live;
+
+        void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+            live++;
+        }
+
+        int compact(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[next] = doc;
+                    weights[next] = weights[i];
+                    next++;
+                }
+            }
+            size = next;
+            live = next;
+            docs = Arrays.copyOf(docs, Math.max(4, next));
+            weights = Arrays.copyOf(weights, Math.max(4, next));
+            return next;
+        }
+    }
+}
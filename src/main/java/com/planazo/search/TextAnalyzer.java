@@ -0,0 +1,50 @@
+package com.planazo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte texto en términos de búsqueda: minúsculas, sin tildes ni diéresis
+ * y sin palabras vacías en español.
+ */
+final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Ya sin tildes, porque se comparan después de normalizar
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "algo", "ante", "antes", "como", "con", "contra", "cual", "cuando", "de", "del",
+            "desde", "donde", "durante", "e", "el", "ella", "ellas", "ellos", "en", "entre", "era", "es",
+            "esa", "esas", "ese", "eso", "esos", "esta", "estan", "estas", "este", "esto", "estos", "fue",
+            "ha", "hay", "hasta", "la", "las", "le", "les", "lo", "los", "mas", "me", "mi", "mis", "muy",
+            "nada", "ni", "no", "nos", "o", "otra", "otras", "otro", "otros", "para", "pero", "poco",
+            "por", "porque", "que", "quien", "se", "ser", "si", "sin", "sobre", "son", "su", "sus",
+            "tambien", "te", "tu", "tus", "u", "un", "una", "unas", "uno", "unos", "y", "ya", "yo"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (token.length() > 1 && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
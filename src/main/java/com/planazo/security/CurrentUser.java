@@ -0,0 +1,55 @@
+package com.planazo.security;
+
+import com.planazo.exception.ResourceNotFoundException;
+import com.planazo.exception.UnauthorizedException;
+import com.planazo.model.User;
+import com.planazo.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Usuario autenticado de la petición actual.
+ * El ID y el email salen del JWT (ver {@link JwtUserPrincipal}); la entidad
+ * {@link User} solo se carga si alguien la pide, y como mucho una vez por petición.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    private JwtUserPrincipal principal;
+    private User user;
+
+    public Long getId() {
+        return principal().id();
+    }
+
+    public String getEmail() {
+        return principal().email();
+    }
+
+    // Carga perezosa y memorizada de la entidad
+    public User getUser() {
+        if (user == null) {
+            user = userRepository.findById(getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + getId()));
+        }
+        return user;
+    }
+
+    private JwtUserPrincipal principal() {
+        if (principal == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof JwtUserPrincipal jwtPrincipal)) {
+                throw new UnauthorizedException("Usuario no autenticado");
+            }
+            principal = jwtPrincipal;
+        }
+        return principal;
+    }
+}
@@ -7,19 +7,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,34 +29,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Obtener el header Authorization
         String authHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String username = null;
+        VerifiedToken verifiedToken = null;
 
         // Verificar si el header existe y empieza con "Bearer "
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7); // Extraer el token (quitar "Bearer ")
+            String token = authHeader.substring(7); // Extraer el token (quitar "Bearer ")
             try {
-                username = jwtUtil.extractUsername(token);
+                // Una sola verificación (firma + expiración) por petición, cacheada por token
+                verifiedToken = jwtUtil.verify(token);
             } catch (Exception e) {
-                logger.error("Error al extraer username del token: " + e.getMessage());
+                logger.error("Error al validar el token: " + e.getMessage());
             }
         }
 
-        // Si se extrajo el username y no hay autenticación en el contexto
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Si el token es válido y no hay autenticación en el contexto
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Cargar el usuario desde la base de datos
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            String email = verifiedToken.subject();
+            Long userId = verifiedToken.userId();
 
-            // Validar el token
-            if (jwtUtil.validateToken(token, userDetails)) {
+            // El principal sale del token; solo se consulta el estado de la cuenta y su época (cacheados)
+            if (email != null && userId != null && userStatusCache.accepts(userId, verifiedToken.tokenEpoch())) {
+                JwtUserPrincipal principal = new JwtUserPrincipal(userId, email);
 
-                // Crear el objeto de autenticación
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities()
+                                Collections.emptyList() // Sin roles por ahora
                         );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,101 @@
+package com.planazo.security;
+
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Juego inmutable de claves HMAC indexadas por {@code kid}: una de ellas firma los tokens
+ * nuevos y el resto solo se usa para verificar los que se firmaron antes de rotar.
+ * <p>
+ * Las claves se derivan una sola vez al arrancar; verificar un token cuesta una búsqueda
+ * en el mapa. Para rotar se cambia {@code jwt.keys} / {@code jwt.current-kid} y se
+ * reinician las instancias (ver application.properties).
+ */
+public final class JwtKeyRing {
+
+    // kid de la clave que sale de jwt.secret cuando no hay jwt.keys
+    public static final String DEFAULT_KID = "default";
+
+    private final String currentKid;
+    private final Map<String, SecretKey> keys;
+    private final SecretKey legacyKey;
+
+    private JwtKeyRing(String currentKid, Map<String, SecretKey> keys, SecretKey legacyKey) {
+        this.currentKid = currentKid;
+        this.keys = Map.copyOf(keys);
+        this.legacyKey = legacyKey;
+    }
+
+    /**
+     * @param secrets      secretos por kid (al menos 32 bytes cada uno)
+     * @param currentKid   kid con el que se firman los tokens nuevos
+     * @param legacySecret secreto de los tokens sin cabecera kid (emitidos antes de
+     *                     usar kid); puede ser null
+     */
+    public static JwtKeyRing of(Map<String, String> secrets, String currentKid, String legacySecret) {
+        if (!secrets.containsKey(currentKid)) {
+            throw new IllegalArgumentException("La clave de firma '" + currentKid + "' no está entre las configuradas");
+        }
+        Map<String, SecretKey> keys = new HashMap<>();
+        secrets.forEach((kid, secret) -> keys.put(kid, key(kid, secret)));
+        SecretKey legacyKey = legacySecret == null || legacySecret.isBlank() ? null : key("legacy", legacySecret);
+        return new JwtKeyRing(currentKid, keys, legacyKey);
+    }
+
+    /**
+     * Juego a partir de la configuración: {@code jwt.keys} ("kid:secreto,kid2:secreto2")
+     * con {@code jwt.current-kid}, o solo {@code jwt.secret} con kid {@value #DEFAULT_KID}.
+     */
+    public static JwtKeyRing fromProperties(String keysSpec, String currentKid, String secret) {
+        if (keysSpec == null || keysSpec.isBlank()) {
+            if (secret == null || secret.isBlank()) {
+                throw new IllegalStateException("Hay que configurar jwt.keys o jwt.secret");
+            }
+            return of(Map.of(DEFAULT_KID, secret), DEFAULT_KID, secret);
+        }
+        Map<String, String> secrets = parse(keysSpec);
+        String signingKid = currentKid == null || currentKid.isBlank()
+                ? secrets.keySet().iterator().next()
+                : currentKid.trim();
+        return of(secrets, signingKid, secret);
+    }
+
+    // "kid:secreto,kid2:secreto2", en orden de aparición
+    static Map<String, String> parse(String keysSpec) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        for (String entry : keysSpec.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Formato esperado kid:secreto en jwt.keys");
+            }
+            secrets.put(entry.substring(0, colon).trim(), entry.substring(colon + 1).trim());
+        }
+        return secrets;
+    }
+
+    public String currentKid() {
+        return currentKid;
+    }
+
+    public SecretKey signingKey() {
+        return keys.get(currentKid);
+    }
+
+    // Clave para verificar un token; null si el kid no existe (o ya se retiró)
+    public SecretKey find(String kid) {
+        return kid == null ? legacyKey : keys.get(kid);
+    }
+
+    private static SecretKey key(String kid, String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            throw new IllegalArgumentException("El secreto de la clave '" + kid + "' debe tener al menos 32 bytes");
+        }
+        return Keys.hmacShaKeyFor(bytes);
+    }
+}
@@ -0,0 +1,16 @@
+package com.planazo.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal construido directamente a partir de los claims del JWT.
+ * {@code getName()} devuelve el email para que {@code authentication.getName()}
+ * siga funcionando igual que con el {@code UserDetails} anterior.
+ */
+public record JwtUserPrincipal(Long id, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,42 +1,116 @@
 package com.planazo.security;
 
+import com.planazo.util.ExpiringLruCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
+@Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
+    // Clave única (y la de los tokens antiguos sin kid) si no hay jwt.keys
+    @Value("${jwt.secret:}")
     private String secret;
 
+    // Varias claves activas: "kid:secreto,kid2:secreto2"; firma la de jwt.current-kid
+    @Value("${jwt.keys:}")
+    private String keys;
+
+    @Value("${jwt.current-kid:}")
+    private String currentKid;
+
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    // Obtener la clave secreta
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Se construye al arrancar: rotar claves es cambiar la configuración y reiniciar
+    private JwtKeyRing keyRing;
+
+    // El parser se construye una sola vez: busca la clave por el kid de la cabecera
+    private JwtParser parser;
+
+    // Tokens ya verificados, indexados por el SHA-256 del token
+    private ExpiringLruCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        this.keyRing = JwtKeyRing.fromProperties(keys, currentKid, secret);
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        Key key = keyRing.find(header.getKeyId());
+                        if (key == null) {
+                            throw new SecurityException("Clave de firma desconocida: kid=" + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verifiedTokens = new ExpiringLruCache<>(cacheMaxSize);
+    }
+
+    /**
+     * Verifica el token (firma + expiración) y devuelve sus claims.
+     * Si el mismo token ya se verificó y no ha expirado, se sirve desde caché
+     * sin repetir el HMAC ni la decodificación JSON.
+     *
+     * @throws io.jsonwebtoken.JwtException si el token no es válido
+     */
+    public VerifiedToken verify(String token) {
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        Integer epoch = claims.get("epoch", Integer.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                epoch != null ? epoch : 0,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
+        verifiedTokens.put(cacheKey, verified, verified.expiresAt().toEpochMilli());
+        return verified;
     }
 
     // Extraer el username (email) del token
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
+    }
+
+    // Extraer el ID de usuario (claim "userId")
+    public Long extractUserId(String token) {
+        return verify(token).userId();
     }
 
     // Extraer la fecha de expiración
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(verify(token).expiresAt());
     }
 
     // Extraer un claim específico
@@ -45,18 +119,9 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Extraer todos los claims
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    // Verificar si el token ha expirado
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Extraer todos los claims (verifica firma y expiración)
+    public Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     // Generar token para un usuario
@@ -65,40 +130,60 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername());
     }
 
-    // Generar token con claims personalizados
-    public String generateToken(String email, Long userId) {
+    // Generar token con claims personalizados; la época permite revocarlo (ver User.tokenEpoch)
+    public String generateToken(String email, Long userId, int tokenEpoch) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
+        claims.put("epoch", tokenEpoch);
         return createToken(claims, email);
     }
 
-    // Crear el token
+    // Vida de los access tokens en segundos, para informar al cliente
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
+    // Crear el token, firmado con la clave actual e identificándola en la cabecera
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expirationDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .header().keyId(keyRing.currentKid()).and()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expirationDate)
+                .signWith(keyRing.signingKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
-    // Validar token
+    // Validar token (una sola verificación)
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.subject().equals(userDetails.getUsername()) && !verified.isExpired();
+        } catch (Exception e) {
+            return false;
+        }
     }
 
     // Validar token (solo verificar que no esté expirado y sea válido)
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !verify(token).isExpired();
         } catch (Exception e) {
             return false;
         }
     }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
 }
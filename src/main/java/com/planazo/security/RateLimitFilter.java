@@ -0,0 +1,276 @@
+package com.planazo.security;
+
+import com.planazo.dto.response.ErrorResponse;
+import com.planazo.util.TokenBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limitación de peticiones con token buckets en memoria para los endpoints caros
+ * (login, registro, renovación de tokens, recuperación de contraseña y creación de planes).
+ * <p>
+ * Se ejecuta antes de {@link JwtAuthenticationFilter} para descartar el abuso antes de
+ * pagar BCrypt o una conexión a la base de datos. Las claves son la IP remota, el email
+ * del cuerpo JSON o el ID del token; la tabla está acotada ({@code rate-limit.max-keys})
+ * y expulsa los buckets menos usados. Al rechazar responde 429 con Retry-After y cuenta
+ * el rechazo en {@code planazo.ratelimit.rejected{rule=...}}.
+ * <p>
+ * Los límites son por instancia. La IP es {@code getRemoteAddr()}: detrás de un proxy
+ * hay que activar {@code server.forward-headers-strategy} para que sea la del cliente.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Solo se inspecciona el cuerpo si es pequeño; uno mayor se limita únicamente por IP
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+    private final TokenBucketTable buckets;
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(JwtUtil jwtUtil,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${rate-limit.login.ip:20/PT1M}") String loginIp,
+                           @Value("${rate-limit.login.email:5/PT1M}") String loginEmail,
+                           @Value("${rate-limit.register.ip:5/PT10M}") String registerIp,
+                           @Value("${rate-limit.forgot-password.ip:5/PT10M}") String forgotPasswordIp,
+                           @Value("${rate-limit.forgot-password.email:3/PT1H}") String forgotPasswordEmail,
+                           @Value("${rate-limit.refresh.ip:30/PT1M}") String refreshIp,
+                           @Value("${rate-limit.plan-create.user:10/PT1M}") String planCreateUser) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.buckets = new TokenBucketTable(maxKeys);
+
+        // Se evalúan en orden: las reglas por IP primero, que no necesitan leer el cuerpo
+        this.rules = List.of(
+                RateLimitRule.of("login-ip", "POST", "/api/auth/login", RateLimitRule.Key.IP, loginIp),
+                RateLimitRule.of("login-email", "POST", "/api/auth/login", RateLimitRule.Key.EMAIL, loginEmail),
+                RateLimitRule.of("register-ip", "POST", "/api/auth/register", RateLimitRule.Key.IP, registerIp),
+                RateLimitRule.of("forgot-password-ip", "POST", "/api/auth/forgot-password",
+                        RateLimitRule.Key.IP, forgotPasswordIp),
+                RateLimitRule.of("forgot-password-email", "POST", "/api/auth/forgot-password",
+                        RateLimitRule.Key.EMAIL, forgotPasswordEmail),
+                RateLimitRule.of("refresh-ip", "POST", "/api/auth/refresh", RateLimitRule.Key.IP, refreshIp),
+                RateLimitRule.of("plan-create-user", "POST", "/api/plans", RateLimitRule.Key.USER_ID, planCreateUser)
+        );
+
+        for (RateLimitRule rule : rules) {
+            rejections.put(rule.name(), Counter.builder("planazo.ratelimit.rejected")
+                    .description("Peticiones rechazadas por superar el límite")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("planazo.ratelimit.keys", buckets, TokenBucketTable::size)
+                .description("Claves con bucket en memoria")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || matchingRules(request).isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        List<RateLimitRule> matching = matchingRules(request);
+        HttpServletRequest effectiveRequest = request;
+        String email = null;
+
+        if (matching.stream().anyMatch(rule -> rule.key() == RateLimitRule.Key.EMAIL)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            effectiveRequest = cached;
+            email = cached.isComplete() ? extractEmail(cached.body()) : null;
+        }
+
+        // Un token consumido por una regla no se devuelve si otra rechaza: el abuso también gasta cupo
+        for (RateLimitRule rule : matching) {
+            String key = resolveKey(rule, request, email);
+            if (key == null) {
+                continue;
+            }
+
+            long waitNanos = buckets.tryAcquire(rule.name() + ':' + key, rule.capacity(), rule.nanosPerToken());
+            if (waitNanos > 0) {
+                reject(rule, request, response, TokenBucketTable.toRetryAfterSeconds(waitNanos));
+                return;
+            }
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private List<RateLimitRule> matchingRules(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return rules.stream()
+                .filter(rule -> rule.matches(request.getMethod(), path))
+                .toList();
+    }
+
+    // Clave del bucket según la regla; null si la petición no la aporta (la regla no aplica)
+    private String resolveKey(RateLimitRule rule, HttpServletRequest request, String email) {
+        return switch (rule.key()) {
+            case IP -> request.getRemoteAddr();
+            case EMAIL -> email;
+            case USER_ID -> userId(request);
+        };
+    }
+
+    // La verificación queda cacheada en JwtUtil, así que el filtro JWT no la repite
+    private String userId(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Long userId = jwtUtil.verify(authHeader.substring(7)).userId();
+            return userId != null ? userId.toString() : null;
+        } catch (Exception e) {
+            // Token inválido: se rechazará después con 401
+            return null;
+        }
+    }
+
+    // Mismo criterio de normalización que UserServiceImpl
+    private String extractEmail(byte[] body) {
+        try {
+            Object email = objectMapper.readValue(body, Map.class).get("email");
+            return email instanceof String value && !value.isBlank() ? value.toLowerCase().trim() : null;
+        } catch (Exception e) {
+            // Cuerpo no JSON: que lo rechace la validación del controlador
+            return null;
+        }
+    }
+
+    private void reject(RateLimitRule rule, HttpServletRequest request, HttpServletResponse response,
+                        long retryAfterSeconds) throws IOException {
+        rejections.get(rule.name()).increment();
+        log.warn("Rate limit '{}' superado desde {} en {}", rule.name(), request.getRemoteAddr(), request.getRequestURI());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Demasiadas peticiones, inténtalo de nuevo más tarde")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    /**
+     * Lee por adelantado (como mucho {@link #MAX_INSPECTED_BODY} bytes) el cuerpo para poder
+     * inspeccionarlo, y se lo vuelve a entregar completo al resto de la cadena.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+        private final boolean complete;
+        private final InputStream body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            InputStream original = request.getInputStream();
+            byte[] read = original.readNBytes(MAX_INSPECTED_BODY + 1);
+            this.complete = read.length <= MAX_INSPECTED_BODY;
+            this.head = read;
+            this.body = complete
+                    ? new ByteArrayInputStream(read)
+                    : new SequenceInputStream(new ByteArrayInputStream(read), original);
+        }
+
+        private boolean isComplete() {
+            return complete;
+        }
+
+        private byte[] body() {
+            return head;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    int n = body.read(buffer, off, len);
+                    finished = n < 0;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Lectura asíncrona no soportada");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.planazo.security;
+
+import java.time.Duration;
+
+/**
+ * Regla de limitación: qué peticiones cubre (método + ruta exacta), por qué clave se
+ * cuentan y cuántas se permiten por periodo. El bucket admite ráfagas de {@code capacity}
+ * peticiones y se repone de forma continua a razón de {@code capacity / period}.
+ */
+public record RateLimitRule(String name, String method, String path, Key key, int capacity, Duration period) {
+
+    public enum Key {
+        IP, EMAIL, USER_ID
+    }
+
+    public RateLimitRule {
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Regla de rate limit inválida: " + name);
+        }
+    }
+
+    // Formato "<peticiones>/<duración ISO-8601>", p. ej. "5/PT1M"
+    public static RateLimitRule of(String name, String method, String path, Key key, String spec) {
+        int slash = spec.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Formato esperado <peticiones>/<duración> en " + name + ": " + spec);
+        }
+        return new RateLimitRule(name, method, path, key,
+                Integer.parseInt(spec.substring(0, slash).trim()),
+                Duration.parse(spec.substring(slash + 1).trim()));
+    }
+
+    public boolean matches(String requestMethod, String requestPath) {
+        return method.equalsIgnoreCase(requestMethod) && path.equals(requestPath);
+    }
+
+    public long nanosPerToken() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+}
@@ -1,6 +1,9 @@
 package com.planazo.security;
 
+import com.planazo.metrics.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +17,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -21,10 +26,19 @@ public class SecurityConfig {
 
     private final CorsConfigurationSource corsConfigurationSource;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
+    // BCrypt medido (TimedPasswordEncoder) y aislado en su propio pool (BulkheadPasswordEncoder).
+    // Subir auth.bcrypt.strength hace que los hashes antiguos se rehagan en el siguiente login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.bcrypt.strength:10}") int strength,
+                                           @Value("${auth.hashing.threads:0}") int threads,
+                                           @Value("${auth.hashing.queue-capacity:200}") int queueCapacity,
+                                           @Value("${auth.hashing.timeout:PT5S}") Duration timeout) {
+        PasswordEncoder bcrypt = new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BulkheadPasswordEncoder(bcrypt, meterRegistry, poolSize, queueCapacity, timeout, 1);
     }
 
     @Bean
@@ -43,9 +57,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/register").permitAll()
                         .requestMatchers("/api/auth/login").permitAll()
+                        .requestMatchers("/api/auth/refresh", "/api/auth/logout").permitAll()
                         .requestMatchers("/api/auth/forgot-password").permitAll()
                         .requestMatchers("/api/auth/reset-password").permitAll()
                         .requestMatchers("/api/health").permitAll()
+                        // Sondas y scraping de Prometheus (restringir por red en producción)
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -53,7 +70,9 @@ public class SecurityConfig {
 
 
                 // Añadir el filtro JWT antes del filtro de autenticación estándar
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Y el rate limit delante de todo, para cortar el abuso antes de verificar tokens o hashear
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,13 @@
+package com.planazo.security;
+
+/**
+ * Lo que el filtro JWT necesita saber de un usuario en cada petición: si la cuenta
+ * sigue activa y cuál es su época de tokens vigente.
+ */
+public record UserAuthState(boolean active, int tokenEpoch) {
+
+    // El token vale si la cuenta está activa y se emitió en la época actual
+    public boolean accepts(int epoch) {
+        return active && tokenEpoch == epoch;
+    }
+}
@@ -0,0 +1,60 @@
+package com.planazo.security;
+
+import com.planazo.repository.UserRepository;
+import com.planazo.util.ExpiringLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caché en memoria del estado de la cuenta (activa o desactivada) y de su época de tokens
+ * por ID de usuario. Evita consultar la tabla users en cada petición autenticada; el TTL
+ * acota cuánto tarda en verse una desactivación o una revocación hecha desde otra instancia.
+ */
+@Component
+@Slf4j
+public class UserStatusCache {
+
+    private static final UserAuthState UNKNOWN_USER = new UserAuthState(false, -1);
+
+    private final UserRepository userRepository;
+    private final ExpiringLruCache<Long, UserAuthState> cache;
+    private final long ttlMillis;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${auth.status-cache.max-size:10000}") int maxSize,
+                           @Value("${auth.status-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = new ExpiringLruCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    // Indica si un token de esa época sigue valiendo; solo consulta la base de datos si no está en caché
+    public boolean accepts(Long userId, int tokenEpoch) {
+        UserAuthState state = cache.get(userId);
+        if (state == null) {
+            state = userRepository.findAuthStateById(userId).orElse(UNKNOWN_USER);
+            cache.put(userId, state, System.currentTimeMillis() + ttlMillis);
+        }
+        return state.accepts(tokenEpoch);
+    }
+
+    public void evict(Long userId) {
+        cache.remove(userId);
+    }
+
+    // Invalida la entrada cuando la transacción actual confirme, para no cachear un estado sin commit
+    public void evictAfterCommit(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+}
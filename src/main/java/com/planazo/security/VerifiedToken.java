@@ -0,0 +1,14 @@
+package com.planazo.security;
+
+import java.time.Instant;
+
+/**
+ * Resultado de verificar un JWT una sola vez: firma, expiración y claims ya decodificados.
+ * {@code tokenEpoch} es la época del usuario al emitirlo (0 si el token no la lleva).
+ */
+public record VerifiedToken(String subject, Long userId, int tokenEpoch, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -11,7 +11,20 @@ public interface CategoryService {
 
     List<CategoryResponse> getActiveCategories();
 
+    /**
+     * Listado ya serializado a JSON junto con su ETag, para servirlo sin volver a serializar.
+     */
+    SerializedCategories getSerializedCategories(boolean onlyActive);
+
     CategoryResponse getCategoryById(Long id);
 
     Category getCategoryEntityById(Long id);
+
+    /**
+     * Vuelve a cargar la caché de categorías. Hay que llamarlo después de escribir en la tabla.
+     */
+    void refreshCache();
+
+    record SerializedCategories(byte[] json, String etag) {
+    }
 }
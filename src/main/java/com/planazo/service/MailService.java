@@ -0,0 +1,7 @@
+package com.planazo.service;
+
+public interface MailService {
+
+    // Deja el email en la cola (outbox) dentro de la transacción actual; se envía en segundo plano
+    void enqueue(String to, String subject, String body);
+}
@@ -9,15 +9,15 @@ import java.util.List;
 
 public interface ParticipationService {
 
-    ParticipationResponse joinPlan(Long planId, String userEmail);
+    ParticipationResponse joinPlan(Long planId, Long userId);
 
-    void leavePlan(Long planId, String userEmail);
+    void leavePlan(Long planId, Long userId);
 
-    void removeParticipant(Long planId, Long userId, String creatorEmail);
+    void removeParticipant(Long planId, Long userId, Long creatorId);
 
     List<ParticipantResponse> getPlanParticipants(Long planId);
 
-    Page<ParticipationResponse> getUserParticipations(String userEmail, Pageable pageable);
+    Page<ParticipationResponse> getUserParticipations(Long userId, Pageable pageable);
 
-    boolean isUserParticipating(Long planId, String userEmail);
+    boolean isUserParticipating(Long planId, Long userId);
 }
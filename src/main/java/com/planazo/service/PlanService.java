@@ -2,13 +2,18 @@ package com.planazo.service;
 
 import com.planazo.dto.request.CreatePlanRequest;
 import com.planazo.dto.request.UpdatePlanRequest;
+import com.planazo.dto.response.CursorPageResponse;
+import com.planazo.dto.response.NearbyPlanResponse;
 import com.planazo.dto.response.PlanResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface PlanService {
 
-    PlanResponse createPlan(CreatePlanRequest request, String creatorEmail);
+    PlanResponse createPlan(CreatePlanRequest request, Long creatorId);
 
     PlanResponse getPlanById(Long id);
 
@@ -18,14 +23,23 @@ public interface PlanService {
 
     Page<PlanResponse> getPlansByCategory(Long categoryId, Pageable pageable);
 
+    CursorPageResponse<PlanResponse> getUpcomingPlansFeed(String cursor, int size);
+
+    CursorPageResponse<PlanResponse> getPlansByCategoryFeed(Long categoryId, String cursor, int size);
+
     Page<PlanResponse> getPlansByCreator(Long creatorId, Pageable pageable);
 
     Page<PlanResponse> searchPlansByLocation(String location, Pageable pageable);
 
-    PlanResponse updatePlan(Long id, UpdatePlanRequest request, String userEmail);
+    Page<PlanResponse> searchPlans(String query, Pageable pageable);
+
+    List<NearbyPlanResponse> getNearbyPlans(double latitude, double longitude, double radiusKm,
+                                            Long categoryId, LocalDateTime from, LocalDateTime to, int limit);
+
+    PlanResponse updatePlan(Long id, UpdatePlanRequest request, Long userId);
 
-    void deletePlan(Long id, String userEmail);
+    void deletePlan(Long id, Long userId);
 
-    void cancelPlan(Long id, String userEmail);
+    void cancelPlan(Long id, Long userId);
 }
 
@@ -0,0 +1,22 @@
+package com.planazo.service;
+
+import com.planazo.model.User;
+
+public interface RefreshTokenService {
+
+    // Abre una sesión nueva y devuelve su refresh token en claro
+    String issue(User user);
+
+    // Canjea un refresh token por el siguiente de la misma sesión
+    Rotation rotate(String refreshToken);
+
+    // Cierra la sesión a la que pertenece el token (logout)
+    void revoke(String refreshToken);
+
+    // Cierra todas las sesiones del usuario
+    void revokeAll(Long userId);
+
+    // Resultado de una rotación: el dueño del token (ya cargado) y el nuevo token en claro
+    record Rotation(User user, String refreshToken) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.planazo.service;
 
 import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.request.RefreshTokenRequest;
 import com.planazo.dto.request.RegisterRequest;
 import com.planazo.dto.request.UpdateProfileRequest;
 import com.planazo.dto.response.AuthResponse;
@@ -9,18 +10,27 @@ import com.planazo.model.User;
 
 public interface UserService {
 
-    // Registrar un nuevo usuario
-    UserResponse register(RegisterRequest request);
+    // Registrar un nuevo usuario y emitir su token
+    AuthResponse register(RegisterRequest request);
 
     // Login de usuario
     AuthResponse login(LoginRequest request);
 
+    // Renovar el access token canjeando (y rotando) el refresh token
+    AuthResponse refresh(RefreshTokenRequest request);
+
+    // Cerrar la sesión del refresh token
+    void logout(RefreshTokenRequest request);
+
     // Obtener usuario por ID
     UserResponse getUserById(Long id);
 
     // Obtener usuario por email
     User getUserByEmail(String email);
 
+    // Obtener una referencia al usuario sin consultarlo (para claves foráneas)
+    User getUserReference(Long id);
+
     // Actualizar perfil de usuario
     UserResponse updateProfile(Long userId, UpdateProfileRequest request);
 
@@ -5,46 +5,152 @@ import com.planazo.dto.response.CategoryResponse;
 import com.planazo.exception.ResourceNotFoundException;
 import com.planazo.model.Category;
 import com.planazo.repository.CategoryRepository;
+import com.planazo.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Las categorías casi nunca cambian: se sirven desde una instantánea inmutable en memoria
+ * que incluye las entidades, las respuestas y el JSON ya serializado con su ETag.
+ * La instantánea se sustituye entera en {@link #refreshCache()}.
+ */
 @Service
 @RequiredArgsConstructor
-public class CategoryServiceImpl implements com.planazo.service.CategoryService {
+@Slf4j
+public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    // Lock y no synchronized: la carga consulta la base de datos y, en Java 21, un hilo
+    // virtual bloqueado dentro de synchronized inmoviliza su hilo portador
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private record Snapshot(Map<Long, Category> entities,
+                            Map<Long, CategoryResponse> responses,
+                            List<CategoryResponse> all,
+                            List<CategoryResponse> active,
+                            SerializedCategories allJson,
+                            SerializedCategories activeJson) {
+    }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(CategoryMapper::toCategoryResponse)
-                .toList();
+        return snapshot().all();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getActiveCategories() {
-        return categoryRepository.findByActiveTrue().stream()
-                .map(CategoryMapper::toCategoryResponse)
-                .toList();
+        return snapshot().active();
+    }
+
+    @Override
+    public SerializedCategories getSerializedCategories(boolean onlyActive) {
+        Snapshot current = snapshot();
+        return onlyActive ? current.activeJson() : current.allJson();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
-        return CategoryMapper.toCategoryResponse(category);
+        CategoryResponse category = snapshot().responses().get(id);
+        if (category != null) {
+            return category;
+        }
+        return CategoryMapper.toCategoryResponse(findCategory(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Category getCategoryEntityById(Long id) {
+        Category category = snapshot().entities().get(id);
+        if (category != null) {
+            // Copia desacoplada: la instantánea se comparte entre hilos y no debe modificarse
+            return Category.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .description(category.getDescription())
+                    .iconEmoji(category.getIconEmoji())
+                    .colorHex(category.getColorHex())
+                    .active(category.getActive())
+                    .build();
+        }
+        return findCategory(id);
+    }
+
+    @Override
+    public void refreshCache() {
+        loadLock.lock();
+        try {
+            snapshot = load();
+        } finally {
+            loadLock.unlock();
+        }
+        log.debug("Category cache refreshed with {} categories", snapshot.all().size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+                current = snapshot;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // Lo que no está en la instantánea se busca en base de datos (p. ej. una categoría recién creada)
+    private Category findCategory(Long id) {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
     }
+
+    private Snapshot load() {
+        List<Category> categories = categoryRepository.findAll(Sort.by("id"));
+
+        Map<Long, Category> entities = categories.stream()
+                .collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity()));
+        List<CategoryResponse> all = categories.stream()
+                .map(CategoryMapper::toCategoryResponse)
+                .toList();
+        List<CategoryResponse> active = all.stream()
+                .filter(category -> Boolean.TRUE.equals(category.getActive()))
+                .toList();
+        Map<Long, CategoryResponse> responses = all.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryResponse::getId, Function.identity()));
+
+        return new Snapshot(entities, responses, all, active, serialize(all), serialize(active));
+    }
+
+    private SerializedCategories serialize(List<CategoryResponse> categories) {
+        byte[] json = objectMapper.writeValueAsBytes(categories);
+        return new SerializedCategories(json, strongEtag(json));
+    }
+
+    private static String strongEtag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.planazo.service.impl;
+
+import com.planazo.model.OutboxEmail;
+import com.planazo.repository.OutboxEmailRepository;
+import com.planazo.service.MailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MailServiceImpl implements MailService {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    // Solo un INSERT: si la transacción que lo provoca se deshace, el email tampoco sale
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        OutboxEmail email = outboxEmailRepository.save(OutboxEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .build());
+        log.debug("Email {} encolado para {}", email.getId(), to);
+    }
+}
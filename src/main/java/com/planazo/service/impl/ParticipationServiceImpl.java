@@ -12,6 +12,7 @@ import com.planazo.repository.PlanRepository;
 import com.planazo.service.ParticipationService;
 import com.planazo.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,123 +33,105 @@ public class ParticipationServiceImpl implements ParticipationService {
 
     @Override
     @Transactional
-    public ParticipationResponse joinPlan(Long planId, String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
-        Plan plan = findPlanById(planId);
-
-        // Validaciones
-        validateJoinPlan(plan, user);
+    public ParticipationResponse joinPlan(Long planId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
 
         // Buscar si ya existe una participación previa (LEFT o REMOVED)
-        Optional<Participation> existingParticipation = participationRepository.findByPlanIdAndUserId(planId, user.getId());
+        Optional<Participation> existingParticipation = participationRepository.findByPlanIdAndUserId(planId, userId);
+
+        if (existingParticipation.isPresent()
+                && existingParticipation.get().getStatus() == ParticipationStatus.CONFIRMED) {
+            throw new BadRequestException("You are already participating in this plan");
+        }
+
+        // Reservar la plaza con un UPDATE condicional: sin leer el plan ni bloquearlo de antemano.
+        // Si no se actualiza ninguna fila, se lee el plan solo para devolver el motivo exacto.
+        if (planRepository.claimSeat(planId, userId, now) == 0) {
+            throw seatRejection(planId, userId);
+        }
 
         Participation participation;
 
         if (existingParticipation.isPresent()) {
-            // Reutilizar la participación existente
-            participation = existingParticipation.get();
-            participation.setStatus(ParticipationStatus.CONFIRMED);
-            participation.setLeftAt(null);
-            participation.setJoinedAt(LocalDateTime.now()); // Actualizar fecha de unión
+            // Reactivar con un UPDATE condicional para que dos peticiones del mismo usuario no cuenten doble.
+            // La fecha de unión también la fija el UPDATE: la entidad no se toca para no lanzar otro sin guarda
+            if (participationRepository.reactivate(planId, userId, now) == 0) {
+                throw new BadRequestException("You are already participating in this plan");
+            }
+
+            // Releer la fila tal y como ha quedado en la base de datos
+            participation = participationRepository.findByPlanIdAndUserId(planId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Participation not found"));
         } else {
             // Crear nueva participación
             participation = Participation.builder()
-                    .plan(plan)
-                    .user(user)
+                    .plan(planRepository.getReferenceById(planId))
+                    .user(userService.getUserReference(userId))
                     .status(ParticipationStatus.CONFIRMED)
                     .build();
-        }
 
-        participationRepository.save(participation);
-
-        // Incrementar contador de participantes
-        plan.setCurrentParticipants(plan.getCurrentParticipants() + 1);
-
-        // Si se llena el plan, cambiar estado a FULL
-        if (plan.isFull()) {
-            plan.setStatus(PlanStatus.FULL);
+            try {
+                // Se fuerza el flush para que un duplicado concurrente falle aquí y deshaga la reserva
+                participationRepository.saveAndFlush(participation);
+            } catch (DataIntegrityViolationException e) {
+                throw new BadRequestException("You are already participating in this plan");
+            }
         }
 
-        planRepository.save(plan);
-
         return ParticipationMapper.toParticipationResponse(participation);
     }
 
     @Override
     @Transactional
-    public void leavePlan(Long planId, String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
-        Plan plan = findPlanById(planId);
+    public void leavePlan(Long planId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
 
-        // Verificar que no sea el creador
-        if (plan.getCreator().getId().equals(user.getId())) {
-            throw new BadRequestException("Creator cannot leave their own plan. Cancel it instead.");
-        }
+        // Pasar de CONFIRMED a LEFT en una sola sentencia
+        if (participationRepository.endParticipation(planId, userId, ParticipationStatus.LEFT, now) == 0) {
+            Plan plan = findPlanById(planId);
 
-        // Buscar participación
-        Participation participation = participationRepository.findByPlanIdAndUserId(planId, user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("You are not participating in this plan"));
+            // Verificar que no sea el creador
+            if (plan.getCreator().getId().equals(userId)) {
+                throw new BadRequestException("Creator cannot leave their own plan. Cancel it instead.");
+            }
 
-        // Verificar que esté confirmado
-        if (participation.getStatus() != ParticipationStatus.CONFIRMED) {
-            throw new BadRequestException("You are not actively participating in this plan");
-        }
-
-        // Actualizar participación
-        participation.setStatus(ParticipationStatus.LEFT);
-        participation.setLeftAt(LocalDateTime.now());
-        participationRepository.save(participation);
-
-        // Decrementar contador de participantes
-        plan.setCurrentParticipants(plan.getCurrentParticipants() - 1);
+            participationRepository.findByPlanIdAndUserId(planId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("You are not participating in this plan"));
 
-        // Si estaba FULL y ahora hay espacio, cambiar a ACTIVE
-        if (plan.getStatus() == PlanStatus.FULL && !plan.isFull()) {
-            plan.setStatus(PlanStatus.ACTIVE);
+            throw new BadRequestException("You are not actively participating in this plan");
         }
 
-        planRepository.save(plan);
+        // Decrementar contador (y reabrir si estaba FULL) de forma atómica
+        planRepository.releaseSeat(planId, now);
     }
 
     @Override
     @Transactional
-    public void removeParticipant(Long planId, Long userId, String creatorEmail) {
-        User creator = userService.getUserByEmail(creatorEmail);
+    public void removeParticipant(Long planId, Long userId, Long creatorId) {
         Plan plan = findPlanById(planId);
 
         // Verificar que el usuario sea el creador
-        if (!plan.getCreator().getId().equals(creator.getId())) {
+        if (!plan.getCreator().getId().equals(creatorId)) {
             throw new ForbiddenException("Only the creator can remove participants");
         }
 
         // No puede remover al creador
-        if (userId.equals(creator.getId())) {
+        if (userId.equals(creatorId)) {
             throw new BadRequestException("Cannot remove yourself as creator");
         }
 
-        // Buscar participación
-        Participation participation = participationRepository.findByPlanIdAndUserId(planId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User is not participating in this plan"));
-
-        // Verificar que esté confirmado
-        if (participation.getStatus() != ParticipationStatus.CONFIRMED) {
-            throw new BadRequestException("User is not actively participating in this plan");
-        }
-
-        // Actualizar participación
-        participation.setStatus(ParticipationStatus.REMOVED);
-        participation.setLeftAt(LocalDateTime.now());
-        participationRepository.save(participation);
+        LocalDateTime now = LocalDateTime.now();
 
-        // Decrementar contador de participantes
-        plan.setCurrentParticipants(plan.getCurrentParticipants() - 1);
+        // Pasar de CONFIRMED a REMOVED en una sola sentencia
+        if (participationRepository.endParticipation(planId, userId, ParticipationStatus.REMOVED, now) == 0) {
+            participationRepository.findByPlanIdAndUserId(planId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User is not participating in this plan"));
 
-        // Si estaba FULL y ahora hay espacio, cambiar a ACTIVE
-        if (plan.getStatus() == PlanStatus.FULL && !plan.isFull()) {
-            plan.setStatus(PlanStatus.ACTIVE);
+            throw new BadRequestException("User is not actively participating in this plan");
         }
 
-        planRepository.save(plan);
+        // Decrementar contador (y reabrir si estaba FULL) de forma atómica
+        planRepository.releaseSeat(planId, now);
     }
 
     @Override
@@ -169,25 +152,22 @@ public class ParticipationServiceImpl implements ParticipationService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ParticipationResponse> getUserParticipations(String userEmail, Pageable pageable) {
-        User user = userService.getUserByEmail(userEmail);
-
-        return participationRepository.findByUserIdAndStatus(user.getId(), ParticipationStatus.CONFIRMED, pageable)
+    public Page<ParticipationResponse> getUserParticipations(Long userId, Pageable pageable) {
+        return participationRepository.findByUserIdAndStatus(userId, ParticipationStatus.CONFIRMED, pageable)
                 .map(ParticipationMapper::toParticipationResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public boolean isUserParticipating(Long planId, String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
+    public boolean isUserParticipating(Long planId, Long userId) {
         return participationRepository.existsByPlanIdAndUserIdAndStatus(
                 planId,
-                user.getId(),
+                userId,
                 ParticipationStatus.CONFIRMED
         );
     }
 
-    private void validateJoinPlan(Plan plan, User user) {
+    private void validateJoinPlan(Plan plan, Long userId) {
         // Verificar que el plan esté activo
         if (plan.getStatus() != PlanStatus.ACTIVE) {
             throw new BadRequestException("This plan is not accepting new participants");
@@ -199,14 +179,14 @@ public class ParticipationServiceImpl implements ParticipationService {
         }
 
         // Verificar que no sea el creador
-        if (plan.getCreator().getId().equals(user.getId())) {
+        if (plan.getCreator().getId().equals(userId)) {
             throw new BadRequestException("You are already the creator of this plan");
         }
 
         // Verificar que no esté ya participando (solo CONFIRMED)
         boolean isAlreadyParticipating = participationRepository.existsByPlanIdAndUserIdAndStatus(
                 plan.getId(),
-                user.getId(),
+                userId,
                 ParticipationStatus.CONFIRMED
         );
 
@@ -221,6 +201,13 @@ public class ParticipationServiceImpl implements ParticipationService {
     }
 
 
+    // Explica por qué no se pudo reservar plaza; si todo cuadra es que otro se llevó la última
+    private BadRequestException seatRejection(Long planId, Long userId) {
+        Plan plan = findPlanById(planId);
+        validateJoinPlan(plan, userId);
+        return new BadRequestException("This plan is full");
+    }
+
     private Plan findPlanById(Long planId) {
         return planRepository.findById(planId)
                 .orElseThrow(() -> new ResourceNotFoundException("Plan not found with id: " + planId));
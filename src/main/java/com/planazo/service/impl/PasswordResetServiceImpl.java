@@ -4,27 +4,58 @@ import com.planazo.dto.request.ForgotPasswordRequest;
 import com.planazo.dto.request.ResetPasswordRequest;
 import com.planazo.exception.BadRequestException;
 import com.planazo.exception.ResourceNotFoundException;
+import com.planazo.job.LifecycleScheduler;
 import com.planazo.model.PasswordResetToken;
 import com.planazo.model.User;
 import com.planazo.repository.PasswordResetTokenRepository;
 import com.planazo.repository.UserRepository;
+import com.planazo.security.UserStatusCache;
+import com.planazo.service.MailService;
 import com.planazo.service.PasswordResetService;
-import lombok.RequiredArgsConstructor;
+import com.planazo.service.RefreshTokenService;
+import com.planazo.util.SecureTokens;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.UUID;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PasswordResetServiceImpl implements PasswordResetService {
 
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
+    // Opcional: con lifecycle.enabled=false la caducidad queda solo en manos de PlanSweeper
+    private final ObjectProvider<LifecycleScheduler> lifecycleScheduler;
+    private final RefreshTokenService refreshTokenService;
+    private final UserStatusCache userStatusCache;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final String resetUrl;
+
+    public PasswordResetServiceImpl(UserRepository userRepository,
+                                    PasswordResetTokenRepository tokenRepository,
+                                    PasswordEncoder passwordEncoder,
+                                    ObjectProvider<LifecycleScheduler> lifecycleScheduler,
+                                    RefreshTokenService refreshTokenService,
+                                    UserStatusCache userStatusCache,
+                                    MailService mailService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${app.password-reset-url:http://localhost:3000/reset-password}") String resetUrl) {
+        this.userRepository = userRepository;
+        this.tokenRepository = tokenRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.lifecycleScheduler = lifecycleScheduler;
+        this.refreshTokenService = refreshTokenService;
+        this.userStatusCache = userStatusCache;
+        this.mailService = mailService;
+        this.transactionTemplate = transactionTemplate;
+        this.resetUrl = resetUrl;
+    }
 
     @Override
     @Transactional
@@ -41,37 +72,33 @@ public class PasswordResetServiceImpl implements PasswordResetService {
             throw new BadRequestException("Usuario inactivo");
         }
 
-        // Eliminar tokens anteriores del usuario
-        tokenRepository.deleteByUser(user);
+        // Eliminar tokens anteriores del usuario (un solo DELETE)
+        tokenRepository.deleteByUserId(user.getId());
 
-        // Generar nuevo token
-        String token = UUID.randomUUID().toString();
+        // Generar nuevo token; en la base de datos solo queda su hash
+        String token = SecureTokens.generate();
 
-        // Crear y guardar el token
         PasswordResetToken resetToken = PasswordResetToken.builder()
-                .token(token)
+                .tokenHash(SecureTokens.sha256Hex(token))
                 .user(user)
                 .used(false)
                 .build();
 
         tokenRepository.save(resetToken);
+        lifecycleScheduler.ifAvailable(scheduler ->
+                scheduler.scheduleTokenExpiry(resetToken.getId(), resetToken.getExpiryDate()));
 
-        // TODO: Enviar email con el token
-        // Por ahora solo lo logueamos
-        log.info("Token de reset generado para {}: {}", email, token);
-        log.info("URL de reset: http://localhost:3000/reset-password?token={}", token);
-
-        // En producción aquí enviarías un email con el link
-        // emailService.sendPasswordResetEmail(user.getEmail(), token);
+        // El email sale de la outbox en segundo plano: la petición no espera al SMTP
+        mailService.enqueue(user.getEmail(), "Recupera tu contraseña de Planazo", resetEmailBody(user, token));
+        log.info("Email de reset de contraseña encolado para usuario ID: {}", user.getId());
     }
 
     @Override
-    @Transactional
     public void resetPassword(ResetPasswordRequest request) {
         log.info("Intentando resetear contraseña con token");
 
-        // Buscar el token
-        PasswordResetToken resetToken = tokenRepository.findByToken(request.getToken())
+        // Buscar el token por su hash
+        PasswordResetToken resetToken = tokenRepository.findByTokenHash(SecureTokens.sha256Hex(request.getToken()))
                 .orElseThrow(() -> new BadRequestException("Token inválido o expirado"));
 
         // Verificar que no haya sido usado
@@ -84,15 +111,36 @@ public class PasswordResetServiceImpl implements PasswordResetService {
             throw new BadRequestException("El token ha expirado");
         }
 
-        // Actualizar la contraseña del usuario
-        User user = resetToken.getUser();
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
-
-        // Marcar el token como usado
-        resetToken.setUsed(true);
-        tokenRepository.save(resetToken);
+        // Hashear fuera de cualquier transacción para no retener una conexión mientras BCrypt trabaja
+        String passwordHash = passwordEncoder.encode(request.getNewPassword());
+        Long userId = resetToken.getUser().getId();
+
+        // Transacción corta: consumir el token, cambiar la contraseña y cerrar todas las sesiones
+        transactionTemplate.executeWithoutResult(status -> {
+            // Si otra petición consumió el token mientras se hasheaba, no se aplica nada
+            if (tokenRepository.markUsed(resetToken.getId()) == 0) {
+                throw new BadRequestException("Este token ya ha sido utilizado");
+            }
+
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+            user.setPasswordHash(passwordHash);
+            user.revokeTokens();
+            userRepository.save(user);
+            refreshTokenService.revokeAll(userId);
+            userStatusCache.evictAfterCommit(userId);
+        });
+
+        // El token usado ya no tiene que caducar: lo purga PlanSweeper
+        lifecycleScheduler.ifAvailable(scheduler -> scheduler.cancelTokenExpiry(resetToken.getId()));
+
+        log.info("Contraseña reseteada exitosamente para usuario ID: {}", userId);
+    }
 
-        log.info("Contraseña reseteada exitosamente para usuario: {}", user.getEmail());
+    private String resetEmailBody(User user, String token) {
+        return "Hola " + user.getName() + ",\n\n"
+                + "Para elegir una contraseña nueva abre este enlace (válido durante 1 hora):\n"
+                + resetUrl + "?token=" + token + "\n\n"
+                + "Si no lo has pedido tú, ignora este mensaje.\n";
     }
 }
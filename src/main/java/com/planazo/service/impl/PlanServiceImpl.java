@@ -1,9 +1,16 @@
 package com.planazo.service;
 
+import com.planazo.dto.PlanCursor;
 import com.planazo.dto.PlanMapper;
 import com.planazo.dto.request.CreatePlanRequest;
 import com.planazo.dto.request.UpdatePlanRequest;
+import com.planazo.dto.response.CursorPageResponse;
+import com.planazo.dto.response.NearbyPlanResponse;
 import com.planazo.dto.response.PlanResponse;
+import com.planazo.event.PlanChangedEvent;
+import com.planazo.event.PlanSnapshot;
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.exception.BadRequestException;
 import com.planazo.exception.ForbiddenException;
 import com.planazo.exception.ResourceNotFoundException;
 import com.planazo.model.Category;
@@ -11,30 +18,56 @@ import com.planazo.model.Plan;
 import com.planazo.model.PlanStatus;
 import com.planazo.model.User;
 import com.planazo.repository.PlanRepository;
+import com.planazo.search.PlanGeoIndex;
+import com.planazo.search.PlanTextIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PlanServiceImpl implements PlanService {
 
+    private static final List<PlanStatus> OPEN_STATUSES = List.of(PlanStatus.ACTIVE, PlanStatus.FULL);
+
+    // Aciertos del índice de texto que se comprueban por consulta como mínimo
+    private static final int SEARCH_CHECK_BATCH = 100;
+
+    // Radio máximo de búsqueda por cercanía
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
+
     private final PlanRepository planRepository;
     private final CategoryService categoryService;
     private final UserService userService;
+    private final PlanGeoIndex planGeoIndex;
+    private final PlanTextIndex planTextIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
-    public PlanResponse createPlan(CreatePlanRequest request, String creatorEmail) {
-        User creator = userService.getUserByEmail(creatorEmail);
+    public PlanResponse createPlan(CreatePlanRequest request, Long creatorId) {
+        User creator = userService.getUserReference(creatorId);
         Category category = categoryService.getCategoryEntityById(request.getCategoryId());
 
         Plan plan = PlanMapper.toPlan(request, category, creator);
         Plan savedPlan = planRepository.save(plan);
+        eventPublisher.publishEvent(new PlanChangedEvent(PlanSnapshot.of(savedPlan)));
 
         return PlanMapper.toPlanResponse(savedPlan);
     }
@@ -42,7 +75,8 @@ public class PlanServiceImpl implements PlanService {
     @Override
     @Transactional(readOnly = true)
     public PlanResponse getPlanById(Long id) {
-        Plan plan = findPlanById(id);
+        Plan plan = planRepository.findDetailedById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Plan not found with id: " + id));
         return PlanMapper.toPlanResponse(plan);
     }
 
@@ -67,6 +101,40 @@ public class PlanServiceImpl implements PlanService {
                 .map(PlanMapper::toPlanResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PlanResponse> getUpcomingPlansFeed(String cursor, int size) {
+        // El offset siempre es 0: la posición la marca el cursor, no el número de página
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+
+        Slice<Plan> plans;
+        if (cursor == null || cursor.isBlank()) {
+            plans = planRepository.findUpcomingFeed(PlanStatus.ACTIVE, now, pageable);
+        } else {
+            PlanCursor after = PlanCursor.decode(cursor);
+            plans = planRepository.findUpcomingFeedAfter(PlanStatus.ACTIVE, now, after.eventDate(), after.id(), pageable);
+        }
+
+        return toCursorPage(plans);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PlanResponse> getPlansByCategoryFeed(Long categoryId, String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<Plan> plans;
+        if (cursor == null || cursor.isBlank()) {
+            plans = planRepository.findCategoryFeed(categoryId, PlanStatus.ACTIVE, pageable);
+        } else {
+            PlanCursor after = PlanCursor.decode(cursor);
+            plans = planRepository.findCategoryFeedAfter(categoryId, PlanStatus.ACTIVE, after.eventDate(), after.id(), pageable);
+        }
+
+        return toCursorPage(plans);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<PlanResponse> getPlansByCreator(Long creatorId, Pageable pageable) {
@@ -81,50 +149,153 @@ public class PlanServiceImpl implements PlanService {
                 .map(PlanMapper::toPlanResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PlanResponse> searchPlans(String query, Pageable pageable) {
+        // El ranking sale del índice en memoria, que puede ir por detrás de la base de datos:
+        // los aciertos se comprueban por tandas, en orden, descartando los que ya no están abiertos
+        // antes de paginar. Solo se hidratan los planes de la página
+        List<PlanTextIndex.TextHit> hits = planTextIndex.search(query);
+        int batchSize = Math.max(pageable.getPageSize(), SEARCH_CHECK_BATCH);
+        List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+        long skipped = 0;
+        int stale = 0;
+
+        for (int from = 0; from < hits.size() && pageIds.size() < pageable.getPageSize(); from += batchSize) {
+            List<Long> batch = hits.subList(from, Math.min(from + batchSize, hits.size())).stream()
+                    .map(PlanTextIndex.TextHit::planId)
+                    .toList();
+            Set<Long> open = new HashSet<>(planRepository.findIdsByIdInAndStatusIn(batch, OPEN_STATUSES));
+
+            for (Long planId : batch) {
+                if (!open.contains(planId)) {
+                    stale++;
+                } else if (skipped < pageable.getOffset()) {
+                    skipped++;
+                } else if (pageIds.size() < pageable.getPageSize()) {
+                    pageIds.add(planId);
+                }
+            }
+        }
+
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.size() - stale);
+        }
+        Map<Long, Plan> plans = planRepository.findByIdInAndStatusIn(pageIds, OPEN_STATUSES)
+                .stream()
+                .collect(Collectors.toMap(Plan::getId, Function.identity()));
+
+        List<PlanResponse> content = pageIds.stream()
+                .map(plans::get)
+                .filter(Objects::nonNull)
+                .map(PlanMapper::toPlanResponse)
+                .toList();
+
+        // Exacto para los aciertos ya comprobados; los que quedan detrás se suponen abiertos
+        return new PageImpl<>(content, pageable, hits.size() - stale);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyPlanResponse> getNearbyPlans(double latitude, double longitude, double radiusKm,
+                                                   Long categoryId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Invalid coordinates");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new BadRequestException("Radius must be between 0 and " + (int) MAX_NEARBY_RADIUS_KM + " km");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        if (to != null && to.isBefore(start)) {
+            throw new BadRequestException("The date window is empty");
+        }
+
+        List<PlanGeoIndex.GeoHit> hits = planGeoIndex.search(latitude, longitude, radiusKm, categoryId, start, to);
+
+        // El índice incluye planes FULL (pueden volver a ACTIVE sin pasar por el servicio):
+        // se hidratan por tandas en orden de distancia hasta completar el límite
+        List<NearbyPlanResponse> result = new ArrayList<>(limit);
+        for (int offset = 0; offset < hits.size() && result.size() < limit; offset += limit) {
+            List<PlanGeoIndex.GeoHit> batch = hits.subList(offset, Math.min(offset + limit, hits.size()));
+            Map<Long, Plan> plans = planRepository.findByIdInAndStatus(
+                            batch.stream().map(PlanGeoIndex.GeoHit::planId).toList(), PlanStatus.ACTIVE)
+                    .stream()
+                    .collect(Collectors.toMap(Plan::getId, Function.identity()));
+
+            for (PlanGeoIndex.GeoHit hit : batch) {
+                Plan plan = plans.get(hit.planId());
+                if (plan != null && plan.getEventDate().isAfter(now) && result.size() < limit) {
+                    result.add(NearbyPlanResponse.builder()
+                            .plan(PlanMapper.toPlanResponse(plan))
+                            .distanceKm(hit.distanceKm())
+                            .build());
+                }
+            }
+        }
+
+        return result;
+    }
+
     @Override
     @Transactional
-    public PlanResponse updatePlan(Long id, UpdatePlanRequest request, String userEmail) {
+    public PlanResponse updatePlan(Long id, UpdatePlanRequest request, Long userId) {
         Plan plan = findPlanById(id);
-        User user = userService.getUserByEmail(userEmail);
 
         // Verificar que el usuario sea el creador
-        if (!plan.getCreator().getId().equals(user.getId())) {
+        if (!plan.getCreator().getId().equals(userId)) {
             throw new ForbiddenException("You can only update your own plans");
         }
 
         PlanMapper.updatePlanFromRequest(plan, request);
         Plan updatedPlan = planRepository.save(plan);
+        eventPublisher.publishEvent(new PlanChangedEvent(PlanSnapshot.of(updatedPlan)));
 
         return PlanMapper.toPlanResponse(updatedPlan);
     }
 
     @Override
     @Transactional
-    public void deletePlan(Long id, String userEmail) {
+    public void deletePlan(Long id, Long userId) {
         Plan plan = findPlanById(id);
-        User user = userService.getUserByEmail(userEmail);
 
         // Verificar que el usuario sea el creador
-        if (!plan.getCreator().getId().equals(user.getId())) {
+        if (!plan.getCreator().getId().equals(userId)) {
             throw new ForbiddenException("You can only delete your own plans");
         }
 
         planRepository.delete(plan);
+        eventPublisher.publishEvent(new PlansClosedEvent(List.of(id)));
     }
 
     @Override
     @Transactional
-    public void cancelPlan(Long id, String userEmail) {
+    public void cancelPlan(Long id, Long userId) {
         Plan plan = findPlanById(id);
-        User user = userService.getUserByEmail(userEmail);
 
         // Verificar que el usuario sea el creador
-        if (!plan.getCreator().getId().equals(user.getId())) {
+        if (!plan.getCreator().getId().equals(userId)) {
             throw new ForbiddenException("You can only cancel your own plans");
         }
 
         plan.setStatus(PlanStatus.CANCELLED);
         planRepository.save(plan);
+        eventPublisher.publishEvent(new PlansClosedEvent(List.of(id)));
+    }
+
+    private CursorPageResponse<PlanResponse> toCursorPage(Slice<Plan> plans) {
+        List<Plan> content = plans.getContent();
+        String nextCursor = plans.hasNext() && !content.isEmpty()
+                ? PlanCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+
+        return CursorPageResponse.<PlanResponse>builder()
+                .content(content.stream().map(PlanMapper::toPlanResponse).toList())
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .size(content.size())
+                .build();
     }
 
     private Plan findPlanById(Long id) {
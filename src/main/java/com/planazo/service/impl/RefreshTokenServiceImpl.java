@@ -0,0 +1,92 @@
+package com.planazo.service.impl;
+
+import com.planazo.exception.UnauthorizedException;
+import com.planazo.model.RefreshToken;
+import com.planazo.model.User;
+import com.planazo.repository.RefreshTokenRepository;
+import com.planazo.service.RefreshTokenService;
+import com.planazo.util.SecureTokens;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos y rotatorios. En la base de datos solo se guarda su SHA-256.
+ * <p>
+ * Cada canje marca el token como usado y emite otro de la misma familia (sesión). Si llega
+ * un token ya usado es que alguien lo ha copiado: se revoca la familia entera y tanto el
+ * cliente legítimo como el atacante tienen que volver a hacer login.
+ */
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${auth.refresh-token.ttl:P30D}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        return save(user, UUID.randomUUID().toString());
+    }
+
+    // Sin rollback al rechazar: la revocación por reutilización tiene que quedar confirmada
+    @Override
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(SecureTokens.sha256Hex(refreshToken))
+                .orElseThrow(() -> new UnauthorizedException("Refresh token inválido"));
+
+        if (current.isExpired()) {
+            throw new UnauthorizedException("Refresh token caducado");
+        }
+
+        if (current.getUsedAt() != null
+                || refreshTokenRepository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+            int revoked = refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            log.warn("Reutilización de refresh token del usuario ID {}: revocados {} tokens de la sesión",
+                    current.getUser().getId(), revoked);
+            throw new UnauthorizedException("Refresh token inválido");
+        }
+
+        User user = current.getUser();
+        return new Rotation(user, save(user, current.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHashWithUser(SecureTokens.sha256Hex(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        log.debug("Revocados {} refresh tokens del usuario ID {}", revoked, userId);
+    }
+
+    private String save(User user, String familyId) {
+        String token = SecureTokens.generate();
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(SecureTokens.sha256Hex(token))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        return token;
+    }
+}
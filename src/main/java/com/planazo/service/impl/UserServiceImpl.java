@@ -2,6 +2,7 @@ package com.planazo.service.impl;
 
 import com.planazo.dto.UserMapper;
 import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.request.RefreshTokenRequest;
 import com.planazo.dto.request.RegisterRequest;
 import com.planazo.dto.request.UpdateProfileRequest;
 import com.planazo.dto.response.AuthResponse;
@@ -13,34 +14,44 @@ import com.planazo.exception.UnauthorizedException;
 import com.planazo.model.User;
 import com.planazo.repository.UserRepository;
 import com.planazo.security.JwtUtil;
+import com.planazo.security.UserStatusCache;
+import com.planazo.service.RefreshTokenService;
 import com.planazo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    // Compilada una sola vez: String.matches recompila la expresión en cada llamada
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final UserStatusCache userStatusCache;
+    private final RefreshTokenService refreshTokenService;
+
+    private volatile String dummyHash;
 
     @Override
-    @Transactional
-    public UserResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request) {
         log.debug("Intentando registrar usuario con email: {}", request.getEmail());
+        String email = request.getEmail().toLowerCase().trim();
 
         // Validar que el email no exista
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(email)) {
             log.warn("Intento de registro con email duplicado: {}", request.getEmail());
             throw new ConflictException("El email ya está registrado");
         }
@@ -50,46 +61,44 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Formato de email inválido");
         }
 
-        // Crear el usuario
+        // Hashear fuera de cualquier transacción para no retener una conexión mientras BCrypt trabaja
         User user = User.builder()
-                .email(request.getEmail().toLowerCase().trim())
+                .email(email)
                 .passwordHash(passwordEncoder.encode(request.getPassword()))
                 .name(request.getName().trim())
                 .active(true)
                 .build();
 
-        // Guardar en base de datos
-        User savedUser = userRepository.save(user);
+        // Guardar en base de datos; el índice único resuelve dos registros simultáneos del mismo email
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("El email ya está registrado");
+        }
         log.info("Usuario registrado exitosamente con ID: {}", savedUser.getId());
 
-        // Convertir a DTO y retornar
-        return UserMapper.toUserResponse(savedUser);
+        // El token se emite directamente: no hace falta volver a autenticar (ni a pagar otro BCrypt)
+        return authResponse(savedUser);
     }
 
     @Override
     public AuthResponse login(LoginRequest request) {
         log.debug("Intentando login para email: {}", request.getEmail());
 
-        try {
-            // Autenticar usando Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail().toLowerCase().trim(),
-                            request.getPassword()
-                    )
-            );
-
-            // Si llegamos aquí, la autenticación fue exitosa
-            log.debug("Autenticación exitosa para: {}", request.getEmail());
-
-        } catch (BadCredentialsException e) {
+        // Una sola consulta; BCrypt se ejecuta después, sin transacción abierta
+        Optional<User> found = userRepository.findByEmail(request.getEmail().toLowerCase().trim());
+
+        // Si el email no existe se compara contra un hash de relleno: la respuesta tarda lo mismo
+        // y no delata qué emails están registrados
+        String passwordHash = found.map(User::getPasswordHash).orElseGet(this::dummyHash);
+        boolean matches = passwordEncoder.matches(request.getPassword(), passwordHash);
+
+        if (found.isEmpty() || !matches) {
             log.warn("Intento de login fallido para email: {}", request.getEmail());
             throw new UnauthorizedException("Email o contraseña incorrectos");
         }
-
-        // Buscar el usuario en la base de datos
-        User user = userRepository.findByEmail(request.getEmail().toLowerCase().trim())
-                .orElseThrow(() -> new UnauthorizedException("Email o contraseña incorrectos"));
+        User user = found.get();
 
         // Verificar que el usuario esté activo
         if (!user.getActive()) {
@@ -97,18 +106,34 @@ public class UserServiceImpl implements UserService {
             throw new UnauthorizedException("Usuario inactivo");
         }
 
-        // Generar token JWT
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+        // Hash con parámetros antiguos (p. ej. coste menor): se rehace ahora que tenemos la contraseña
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            userRepository.updatePasswordHash(user.getId(), passwordEncoder.encode(request.getPassword()));
+            log.info("Hash de contraseña actualizado para usuario ID: {}", user.getId());
+        }
+
         log.info("Login exitoso para usuario ID: {}", user.getId());
+        return authResponse(user);
+    }
 
-        // Construir y retornar la respuesta
-        UserResponse userResponse = UserMapper.toUserResponse(user);
+    @Override
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
 
-        return AuthResponse.builder()
-                .token(token)
-                .type("Bearer")
-                .user(userResponse)
-                .build();
+        // El refresh token no sobrevive a la baja de la cuenta
+        if (!user.getActive()) {
+            refreshTokenService.revokeAll(user.getId());
+            throw new UnauthorizedException("Usuario inactivo");
+        }
+
+        log.debug("Access token renovado para usuario ID: {}", user.getId());
+        return authResponse(user, rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
     }
 
     @Override
@@ -129,6 +154,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
     }
 
+    @Override
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     @Override
     @Transactional
     public UserResponse updateProfile(Long userId, UpdateProfileRequest request) {
@@ -157,19 +187,51 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
 
-        // Soft delete: marcar como inactivo
+        // Soft delete: marcar como inactivo e invalidar los access tokens ya emitidos
         user.setActive(false);
+        user.revokeTokens();
         userRepository.save(user);
+        refreshTokenService.revokeAll(userId);
+
+        // Revocar el acceso de sus tokens en cuanto se confirme la transacción
+        userStatusCache.evictAfterCommit(userId);
 
         log.info("Cuenta eliminada (desactivada) para usuario ID: {}", userId);
     }
 
-    // Método auxiliar para validar email
-    private boolean isValidEmail(String email) {
+    // Abrir una sesión nueva: access token + refresh token
+    private AuthResponse authResponse(User user) {
+        return authResponse(user, refreshTokenService.issue(user));
+    }
+
+    // Generar token JWT y construir la respuesta
+    private AuthResponse authResponse(User user, String refreshToken) {
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getTokenEpoch());
+
+        return AuthResponse.builder()
+                .token(token)
+                .type("Bearer")
+                .user(UserMapper.toUserResponse(user))
+                .refreshToken(refreshToken)
+                .expiresIn(jwtUtil.getExpirationSeconds())
+                .build();
+    }
+
+    // Hash de una contraseña aleatoria, calculado la primera vez que hace falta
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    // Método auxiliar para validar email (público para medirlo en benchmarks/)
+    public static boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
@@ -0,0 +1,114 @@
+package com.planazo.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché LRU acotada con expiración por entrada.
+ * <p>
+ * Se divide en segmentos con su propio lock para que las lecturas concurrentes
+ * del filtro de autenticación no se serialicen en un único monitor. Cada segmento
+ * expulsa su entrada menos usada cuando supera su capacidad.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final LongSupplier clock;
+
+    public ExpiringLruCache(int maxSize) {
+        this(maxSize, DEFAULT_SEGMENTS, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ExpiringLruCache(int maxSize, int segmentCount, LongSupplier clock) {
+        if (maxSize <= 0 || segmentCount <= 0) {
+            throw new IllegalArgumentException("maxSize y segmentCount deben ser positivos");
+        }
+        int segmentsToUse = Math.min(segmentCount, maxSize);
+        int perSegment = Math.max(1, maxSize / segmentsToUse);
+        this.segments = new Segment[segmentsToUse];
+        for (int i = 0; i < segmentsToUse; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.clock = clock;
+    }
+
+    // Devuelve el valor si existe y no ha expirado
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = clock.getAsLong();
+        synchronized (segment) {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                segment.map.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    // Guarda el valor hasta el instante indicado (epoch millis)
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.put(key, new Entry<>(value, expiresAtMillis));
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[Math.floorMod(h, segments.length)];
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> {
+
+        private final Map<K, Entry<V>> map;
+
+        private Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
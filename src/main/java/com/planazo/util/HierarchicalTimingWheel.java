@@ -0,0 +1,196 @@
+package com.planazo.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de tiempos jerárquica: programa vencimientos por clave con coste O(1) para
+ * programar, reprogramar y cancelar.
+ * <p>
+ * Cada nivel tiene {@code slotsPerLevel} huecos; un hueco del nivel L abarca
+ * {@code slotsPerLevel^L} ticks. Cuando el nivel 0 da la vuelta se reparte ("cascada")
+ * el hueco correspondiente del nivel superior. Las entradas más lejanas que el alcance
+ * total se dejan en el último nivel y se recolocan en cada vuelta.
+ * <p>
+ * Los tiempos se expresan en milisegundos de época y se redondean al tick.
+ * Todos los métodos están sincronizados.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Node<K>[][] wheel;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+
+    // Último tick ya procesado
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int slotsPerLevel, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels <= 0 || slotsPerLevel < 2 || Integer.bitCount(slotsPerLevel) != 1) {
+            throw new IllegalArgumentException("tickMillis y levels deben ser positivos y slotsPerLevel potencia de 2");
+        }
+        if ((long) Integer.numberOfTrailingZeros(slotsPerLevel) * levels > 62) {
+            throw new IllegalArgumentException("El alcance de la rueda no cabe en un long");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.mask = slotsPerLevel - 1;
+        this.levels = levels;
+        this.wheel = new Node[levels][slotsPerLevel];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                wheel[level][slot] = Node.sentinel();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Programa (o reprograma) la clave para {@code deadlineMillis}. Si ya ha vencido,
+     * saldrá en el siguiente {@link #advance(long)}.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        place(node, currentTick + 1);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized void clear() {
+        for (Node<K>[] level : wheel) {
+            for (Node<K> head : level) {
+                head.next = head;
+                head.prev = head;
+            }
+        }
+        nodes.clear();
+    }
+
+    /**
+     * Avanza la rueda hasta {@code nowMillis} y devuelve las claves vencidas, en orden de vencimiento.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            cascade(tick);
+
+            Node<K> head = wheel[0][(int) (tick & mask)];
+            Node<K> node = head.next;
+            while (node != head) {
+                Node<K> next = node.next;
+                node.unlink();
+                nodes.remove(node.key);
+                due.add(node.key);
+                node = next;
+            }
+            currentTick = tick;
+        }
+        return due;
+    }
+
+    // Al entrar en un nuevo bloque de un nivel se recolocan las entradas del hueco correspondiente del nivel superior
+    private void cascade(long tick) {
+        for (int level = 1; level < levels; level++) {
+            long span = 1L << (bits * level);
+            if ((tick & (span - 1)) != 0) {
+                break;
+            }
+            Node<K> head = wheel[level][(int) ((tick >>> (bits * level)) & mask)];
+            Node<K> node = head.next;
+            head.next = head;
+            head.prev = head;
+            while (node != head) {
+                Node<K> next = node.next;
+                place(node, tick);
+                node = next;
+            }
+        }
+    }
+
+    // Coloca el nodo en el nivel más bajo cuyo alcance, contado desde baseTick, cubre su vencimiento
+    private void place(Node<K> node, long baseTick) {
+        long delta = node.deadlineTick - baseTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+
+        long tick = node.deadlineTick;
+        long range = 1L << (bits * (level + 1));
+        if (delta >= range) {
+            // Más allá del alcance total: se deja en el último hueco alcanzable y se recoloca al llegar
+            tick = baseTick + range - 1;
+        }
+
+        Node<K> head = wheel[level][(int) ((tick >>> (bits * level)) & mask)];
+        node.linkBefore(head);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Node<K> {
+        private final K key;
+        private long deadlineTick;
+        private Node<K> prev;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        static <K> Node<K> sentinel() {
+            Node<K> head = new Node<>(null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void linkBefore(Node<K> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
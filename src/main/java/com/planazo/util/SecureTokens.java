@@ -0,0 +1,40 @@
+package com.planazo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Tokens opacos de un solo uso (refresh, recuperación de contraseña): 256 bits aleatorios
+ * para el cliente y su SHA-256 para la base de datos. Con esa entropía basta un hash rápido
+ * y determinista, que además se puede buscar por índice; no hace falta BCrypt.
+ */
+public final class SecureTokens {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private SecureTokens() {
+    }
+
+    // Token nuevo en Base64 URL-safe, apto para enlaces
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // SHA-256 en hexadecimal (64 caracteres)
+    public static String sha256Hex(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
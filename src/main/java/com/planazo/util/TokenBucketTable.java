@@ -0,0 +1,129 @@
+package com.planazo.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Tabla de token buckets por clave con tamaño acotado.
+ * <p>
+ * Se divide en franjas con su propio lock (como {@link ExpiringLruCache}) y cada franja
+ * expulsa su bucket menos usado al superar su capacidad, de modo que rociar claves
+ * distintas no hace crecer la memoria. Un bucket expulsado vuelve lleno si su clave
+ * reaparece, aunque estuviera vacío: quien quiera saltarse su límite tendría que tocar más
+ * claves nuevas que la capacidad de la franja entre dos de sus peticiones. Por eso
+ * {@code maxKeys} debe quedar muy por encima de las claves activas en una ventana de reposición.
+ */
+public class TokenBucketTable {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketTable(int maxKeys) {
+        this(maxKeys, DEFAULT_STRIPES, System::nanoTime);
+    }
+
+    public TokenBucketTable(int maxKeys, int stripeCount, LongSupplier nanoClock) {
+        if (maxKeys <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("maxKeys y stripeCount deben ser positivos");
+        }
+        int stripesToUse = Math.min(stripeCount, maxKeys);
+        int perStripe = Math.max(1, maxKeys / stripesToUse);
+        this.stripes = new Stripe[stripesToUse];
+        for (int i = 0; i < stripesToUse; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Intenta consumir un token del bucket de la clave (creándolo lleno si no existe).
+     *
+     * @param capacity          tokens máximos acumulables (ráfaga permitida)
+     * @param nanosPerToken     cada cuánto se repone un token
+     * @return 0 si se consumió el token; si no, nanosegundos hasta que haya uno disponible
+     */
+    public long tryAcquire(String key, int capacity, long nanosPerToken) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.tryConsume(capacity, nanosPerToken, now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    // Redondea hacia arriba a segundos enteros, como espera la cabecera Retry-After
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        private long tryConsume(int capacity, long nanosPerToken, long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + (double) elapsed / nanosPerToken);
+                lastRefill = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+
+    // ReentrantLock en lugar de synchronized: no fija el hilo portador de los hilos virtuales
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int capacity) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
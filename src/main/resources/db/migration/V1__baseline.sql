@@ -0,0 +1,61 @@
+-- Esquema inicial, tal y como lo generaba Hibernate con ddl-auto=update e IDs IDENTITY.
+-- En bases de datos existentes no se ejecuta: Flyway la marca como baseline.
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL UNIQUE,
+    description VARCHAR(200),
+    icon_emoji  VARCHAR(10),
+    color_hex   VARCHAR(7),
+    active      BOOLEAN      NOT NULL
+);
+
+CREATE TABLE users (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email             VARCHAR(100) NOT NULL UNIQUE,
+    password_hash     VARCHAR(255) NOT NULL,
+    name              VARCHAR(100) NOT NULL,
+    profile_picture   VARCHAR(500),
+    bio               VARCHAR(500),
+    registration_date TIMESTAMP(6) NOT NULL,
+    active            BOOLEAN      NOT NULL
+);
+
+CREATE TABLE plans (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title                VARCHAR(100)     NOT NULL,
+    description          TEXT,
+    category_id          BIGINT           NOT NULL REFERENCES categories (id),
+    creator_id           BIGINT           NOT NULL REFERENCES users (id),
+    location             VARCHAR(255)     NOT NULL,
+    latitude             DOUBLE PRECISION,
+    longitude            DOUBLE PRECISION,
+    event_date           TIMESTAMP(6)     NOT NULL,
+    max_participants     INTEGER          NOT NULL,
+    current_participants INTEGER          NOT NULL,
+    status               VARCHAR(20)      NOT NULL
+        CHECK (status IN ('ACTIVE', 'CANCELLED', 'COMPLETED', 'FULL')),
+    image_url            VARCHAR(500),
+    created_at           TIMESTAMP(6)     NOT NULL,
+    updated_at           TIMESTAMP(6)
+);
+
+CREATE TABLE participations (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    plan_id   BIGINT       NOT NULL REFERENCES plans (id),
+    user_id   BIGINT       NOT NULL REFERENCES users (id),
+    status    VARCHAR(20)  NOT NULL
+        CHECK (status IN ('CONFIRMED', 'LEFT', 'REMOVED')),
+    joined_at TIMESTAMP(6) NOT NULL,
+    left_at   TIMESTAMP(6),
+    UNIQUE (plan_id, user_id)
+);
+
+CREATE TABLE password_reset_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token       VARCHAR(255) NOT NULL UNIQUE,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    expiry_date TIMESTAMP(6) NOT NULL,
+    used        BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
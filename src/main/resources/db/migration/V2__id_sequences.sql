@@ -0,0 +1,24 @@
+-- Paso de columnas IDENTITY a secuencias con optimizador pooled (allocationSize = 50).
+-- Es idempotente: también corrige secuencias que Hibernate hubiera creado empezando en 1.
+--
+-- Con el optimizador pooled el valor de la secuencia es el extremo superior del bloque:
+-- nextval = N reserva los IDs (N - 49) .. N. Por eso se deja la secuencia en MAX(id) + 50.
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS plans_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS participations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS password_reset_tokens_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 50, false);
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+SELECT setval('plans_seq', COALESCE((SELECT MAX(id) FROM plans), 0) + 50, false);
+SELECT setval('participations_seq', COALESCE((SELECT MAX(id) FROM participations), 0) + 50, false);
+SELECT setval('password_reset_tokens_seq', COALESCE((SELECT MAX(id) FROM password_reset_tokens), 0) + 50, false);
+
+-- Los IDs ya no los genera la columna
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE plans ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE participations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE password_reset_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
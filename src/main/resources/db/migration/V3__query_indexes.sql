@@ -0,0 +1,35 @@
+-- Índices a medida de las consultas de PlanRepository, ParticipationRepository
+-- y PasswordResetTokenRepository. Se borran primero los que pudiera haber creado Hibernate.
+
+DROP INDEX IF EXISTS idx_plans_status_event_date_id;
+DROP INDEX IF EXISTS idx_plans_category_status_event_date_id;
+
+-- findByStatus, findByStatusAndEventDateAfter, findUpcomingPlans, findUpcomingFeed(After):
+-- igualdad en status y recorrido ordenado por (event_date, id)
+CREATE INDEX idx_plans_status_event_date_id ON plans (status, event_date, id);
+
+-- findByCategoryIdAndStatus, findCategoryFeed(After)
+CREATE INDEX idx_plans_category_status_event_date_id ON plans (category_id, status, event_date, id);
+
+-- findByCreatorId ordenado por created_at DESC y countByCreatorIdAndStatus
+CREATE INDEX idx_plans_creator_created_at ON plans (creator_id, created_at DESC);
+
+-- Planes abiertos por fecha (reconstrucción de índices en memoria y cierre de planes pasados).
+-- Parcial: los planes cancelados y completados, que son la mayoría con el tiempo, no entran.
+CREATE INDEX idx_plans_open_event_date ON plans (event_date, id) WHERE status IN ('ACTIVE', 'FULL');
+
+-- findByLocationContainingIgnoreCaseAndStatus genera upper(location) LIKE upper('%x%'):
+-- solo un índice de trigramas sobre la misma expresión puede servirlo
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_plans_location_trgm ON plans USING gin (upper(location) gin_trgm_ops);
+
+-- findByPlanIdAndStatus, countByPlanIdAndStatus, findUsersByPlanIdAndStatus
+-- (plan_id, user_id) ya está cubierto por la restricción UNIQUE
+CREATE INDEX idx_participations_plan_status ON participations (plan_id, status);
+
+-- findByUserIdAndStatus paginado por fecha de unión
+CREATE INDEX idx_participations_user_status_joined_at ON participations (user_id, status, joined_at);
+
+-- deleteByUser y limpieza de tokens caducados
+CREATE INDEX idx_password_reset_tokens_user ON password_reset_tokens (user_id);
+CREATE INDEX idx_password_reset_tokens_expiry ON password_reset_tokens (expiry_date);
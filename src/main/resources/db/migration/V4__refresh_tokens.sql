@@ -0,0 +1,26 @@
+-- Refresh tokens rotatorios y época de tokens por usuario.
+--
+-- users.token_epoch va en el claim "epoch" de cada access token: al incrementarla
+-- (cambio de contraseña, baja de la cuenta) todos los tokens emitidos antes dejan de valer.
+ALTER TABLE users ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
+
+-- Solo se guarda el SHA-256 del token. Todos los tokens de una misma sesión comparten
+-- family_id: si se reutiliza uno ya rotado se revoca la familia entera.
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT       PRIMARY KEY,
+    token_hash VARCHAR(64)  NOT NULL UNIQUE,
+    family_id  VARCHAR(36)  NOT NULL,
+    user_id    BIGINT       NOT NULL REFERENCES users (id),
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    used_at    TIMESTAMP(6)
+);
+
+-- Revocar la familia (reutilización, logout) y todas las sesiones de un usuario
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- Purga de tokens caducados en PlanSweeper
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,32 @@
+-- Tokens de recuperación guardados como SHA-256 (hex) y cola de emails salientes.
+
+-- Los tokens vigentes se convierten en su hash: los enlaces ya enviados siguen funcionando.
+-- La restricción UNIQUE de la columna (y su índice) se conserva al renombrarla.
+UPDATE password_reset_tokens SET token = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+ALTER TABLE password_reset_tokens RENAME COLUMN token TO token_hash;
+ALTER TABLE password_reset_tokens ALTER COLUMN token_hash TYPE VARCHAR(64);
+
+-- Outbox transaccional: el email se inserta con la operación que lo provoca
+-- y lo envía MailOutboxSender en segundo plano
+CREATE SEQUENCE IF NOT EXISTS outbox_emails_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_emails (
+    id              BIGINT       PRIMARY KEY,
+    recipient       VARCHAR(100) NOT NULL,
+    subject         VARCHAR(200) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(20)  NOT NULL
+        CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6)
+);
+
+-- findDueForUpdate: solo los pendientes, en orden de vencimiento.
+-- Parcial: los enviados, que son casi todos, no entran
+CREATE INDEX idx_outbox_emails_due ON outbox_emails (next_attempt_at, id) WHERE status = 'PENDING';
+
+-- deleteSentBefore
+CREATE INDEX idx_outbox_emails_sent_at ON outbox_emails (sent_at) WHERE status = 'SENT';
@@ -0,0 +1,81 @@
+package com.planazo.config;
+
+import com.planazo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DbAdmissionGateTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource guarded;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        DbAdmissionGate gate = new DbAdmissionGate(meterRegistry, 1, Duration.ofMillis(50), 3);
+        guarded = gate.guard(dataSource);
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void getConnection_ShedsLoadWhenTheWaitExceedsTheDeadline() throws Exception {
+        // Given - el único turno está ocupado
+        Connection held = guarded.getConnection();
+
+        // When & Then
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, guarded::getConnection);
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("planazo.db.gate.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("planazo.db.gate.in_use").gauge().value());
+        verify(dataSource, times(1)).getConnection();
+        held.close();
+    }
+
+    @Test
+    void close_ReturnsThePermitOnlyOnce() throws Exception {
+        // Given
+        Connection first = guarded.getConnection();
+
+        // When - cerrar dos veces no debe liberar dos turnos
+        first.close();
+        first.close();
+        Connection second = guarded.getConnection();
+
+        // Then
+        assertThrows(ServiceUnavailableException.class, guarded::getConnection);
+        verify(connection, times(2)).close();
+        second.close();
+        assertEquals(0, meterRegistry.get("planazo.db.gate.in_use").gauge().value());
+    }
+
+    @Test
+    void getConnection_ReturnsThePermitWhenThePoolFails() throws Exception {
+        // Given
+        when(dataSource.getConnection())
+                .thenThrow(new SQLTransientConnectionException("pool exhausted"))
+                .thenReturn(connection);
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, guarded::getConnection);
+        assertNotNull(guarded.getConnection());
+    }
+}
@@ -0,0 +1,123 @@
+package com.planazo.job;
+
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.model.Category;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import com.planazo.repository.CategoryRepository;
+import com.planazo.repository.PasswordResetTokenRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cierre de planes desde la rueda de tiempos contra la base de datos: una entrada atrasada
+ * no debe cerrar un plan cuya fecha se movió ni sacarlo de los índices.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.datasource.url=jdbc:h2:mem:lifecycledb;DB_CLOSE_DELAY=-1"
+)
+class LifecycleSchedulerTest {
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Object> published = new ArrayList<>();
+    private LifecycleScheduler scheduler;
+    private Category category;
+    private User creator;
+
+    @BeforeEach
+    void setUp() {
+        // lifecycle.enabled=false en los tests: se construye a mano con un publicador que solo registra
+        scheduler = new LifecycleScheduler(planRepository, tokenRepository, transactionTemplate,
+                published::add, 1000, 500);
+        category = categoryRepository.save(Category.builder().name("Lifecycle").active(true).build());
+        creator = userRepository.save(User.builder()
+                .email("lifecycle@planazo.com")
+                .passwordHash("hash")
+                .name("Lifecycle User")
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        planRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void completePlans_OnlyClosesOpenPlansWhoseDateHasPassed() {
+        // Given - la rueda dispara tres entradas, pero solo una sigue vencida en la base de datos
+        Long past = savePlan(LocalDateTime.now().minusHours(1), PlanStatus.ACTIVE);
+        Long postponed = savePlan(LocalDateTime.now().plusDays(7), PlanStatus.ACTIVE);
+        Long cancelled = savePlan(LocalDateTime.now().minusHours(1), PlanStatus.CANCELLED);
+
+        // When
+        scheduler.completePlans(List.of(past, postponed, cancelled));
+
+        // Then
+        assertEquals(PlanStatus.COMPLETED, planRepository.findById(past).orElseThrow().getStatus());
+        assertEquals(PlanStatus.ACTIVE, planRepository.findById(postponed).orElseThrow().getStatus());
+        assertEquals(PlanStatus.CANCELLED, planRepository.findById(cancelled).orElseThrow().getStatus());
+
+        // Y solo el plan cerrado sale de los índices
+        assertEquals(1, published.size());
+        assertEquals(List.of(past), List.copyOf(((PlansClosedEvent) published.get(0)).planIds()));
+    }
+
+    @Test
+    void completePlans_NothingDue_PublishesNothing() {
+        // Given
+        Long postponed = savePlan(LocalDateTime.now().plusDays(7), PlanStatus.FULL);
+
+        // When
+        scheduler.completePlans(List.of(postponed));
+
+        // Then
+        assertEquals(PlanStatus.FULL, planRepository.findById(postponed).orElseThrow().getStatus());
+        assertTrue(published.isEmpty());
+    }
+
+    private Long savePlan(LocalDateTime eventDate, PlanStatus status) {
+        return planRepository.save(Plan.builder()
+                .title("Plan " + status)
+                .category(category)
+                .creator(creator)
+                .location("Madrid")
+                .eventDate(eventDate)
+                .maxParticipants(10)
+                .currentParticipants(1)
+                .status(status)
+                .build()).getId();
+    }
+}
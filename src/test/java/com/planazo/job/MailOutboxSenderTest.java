@@ -0,0 +1,122 @@
+package com.planazo.job;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.planazo.dto.request.ForgotPasswordRequest;
+import com.planazo.dto.request.RegisterRequest;
+import com.planazo.dto.request.ResetPasswordRequest;
+import com.planazo.service.PasswordResetService;
+import com.planazo.service.UserService;
+import com.planazo.util.SecureTokens;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recuperación de contraseña de punta a punta contra un SMTP en memoria (GreenMail):
+ * la petición solo encola el email y {@link MailOutboxSender} lo entrega después.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:maildb;DB_CLOSE_DELAY=-1",
+                "mail.outbox.enabled=true",
+                // El test vacía la cola a mano
+                "mail.outbox.initial-delay=PT1H",
+                "mail.outbox.retry-backoff=PT0S"
+        }
+)
+class MailOutboxSenderTest {
+
+    private static final Pattern RESET_TOKEN = Pattern.compile("token=([A-Za-z0-9_-]+)");
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private MailOutboxSender mailOutboxSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userService.register(RegisterRequest.builder()
+                .email("reset@planazo.com")
+                .password("password123")
+                .name("Reset User")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_emails");
+        jdbcTemplate.update("DELETE FROM password_reset_tokens");
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM users WHERE email = 'reset@planazo.com'");
+    }
+
+    @Test
+    void requestPasswordReset_EmailIsSentByTheOutboxWithAHashedToken() throws Exception {
+        // When - la petición solo encola
+        passwordResetService.requestPasswordReset(new ForgotPasswordRequest("reset@planazo.com"));
+
+        // Then
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        // When - el sender vacía la cola
+        mailOutboxSender.drain();
+
+        // Then
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("reset@planazo.com", received[0].getAllRecipients()[0].toString());
+
+        Matcher matcher = RESET_TOKEN.matcher((String) received[0].getContent());
+        assertTrue(matcher.find(), "El email no contiene el enlace de reset");
+        String token = matcher.group(1);
+
+        // En la base de datos solo está el hash
+        String stored = jdbcTemplate.queryForObject("SELECT token_hash FROM password_reset_tokens", String.class);
+        assertEquals(SecureTokens.sha256Hex(token), stored);
+        assertEquals("SENT", jdbcTemplate.queryForObject("SELECT status FROM outbox_emails", String.class));
+
+        // Y el token del email sirve para cambiar la contraseña
+        passwordResetService.resetPassword(new ResetPasswordRequest(token, "nuevaPassword123"));
+    }
+
+    @Test
+    void drain_SmtpDown_KeepsTheEmailQueuedForRetry() {
+        // Given
+        passwordResetService.requestPasswordReset(new ForgotPasswordRequest("reset@planazo.com"));
+        greenMail.stop();
+
+        // When
+        mailOutboxSender.drain();
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT status, attempts, last_error FROM outbox_emails");
+        assertEquals("PENDING", row.get("STATUS"));
+        assertEquals(1, ((Number) row.get("ATTEMPTS")).intValue());
+        assertNotNull(row.get("LAST_ERROR"));
+    }
+}
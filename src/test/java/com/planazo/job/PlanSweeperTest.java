@@ -0,0 +1,117 @@
+package com.planazo.job;
+
+import com.planazo.event.PlansClosedEvent;
+import com.planazo.repository.PasswordResetTokenRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanSweeperTest {
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PlanSweeper sweeper;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new PlanSweeper(planRepository, tokenRepository, refreshTokenRepository, new TransactionTemplate(transactionManager),
+                eventPublisher, meterRegistry, 2, 10);
+    }
+
+    @Test
+    void completePastPlans_ProcessesBatchesUntilAShortOne() {
+        // Given - dos tandas llenas y una incompleta
+        when(planRepository.findPastOpenPlanIds(eq(now), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        when(planRepository.completePlans(any(), eq(now))).thenReturn(2, 2, 1);
+
+        // When
+        int completed = sweeper.completePastPlans(now);
+
+        // Then
+        assertEquals(5, completed);
+        verify(planRepository, times(3)).completePlans(any(), eq(now));
+        verify(eventPublisher, times(3)).publishEvent(any(PlansClosedEvent.class));
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(5, meterRegistry.get("planazo.sweeper.plans.completed").counter().count());
+    }
+
+    @Test
+    void completePastPlans_StopsAtMaxBatches() {
+        // Given - siempre hay trabajo pendiente
+        when(planRepository.findPastOpenPlanIds(eq(now), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(planRepository.completePlans(any(), eq(now))).thenReturn(2);
+
+        // When
+        int completed = sweeper.completePastPlans(now);
+
+        // Then - 10 tandas de 2 como máximo por ejecución
+        assertEquals(20, completed);
+        verify(planRepository, times(10)).completePlans(any(), eq(now));
+    }
+
+    @Test
+    void completePastPlans_CountsOnlyRowsActuallyUpdated() {
+        // Given - un plan de la tanda se canceló antes del UPDATE
+        when(planRepository.findPastOpenPlanIds(eq(now), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(planRepository.completePlans(any(), eq(now))).thenReturn(1, 1);
+
+        // When
+        int completed = sweeper.completePastPlans(now);
+
+        // Then - la tanda llena sigue pidiendo la siguiente aunque solo actualizara una fila
+        assertEquals(2, completed);
+        verify(planRepository, times(2)).completePlans(any(), eq(now));
+        assertEquals(2, meterRegistry.get("planazo.sweeper.plans.completed").counter().count());
+    }
+
+    @Test
+    void purgeResetTokens_DeletesInBatchesAndSkipsWhenNothingToDo() {
+        // Given
+        when(tokenRepository.findPurgeableIds(eq(now), any(Pageable.class)))
+                .thenReturn(List.of(7L, 8L), List.of());
+
+        // When
+        int purged = sweeper.purgeResetTokens(now);
+
+        // Then
+        assertEquals(2, purged);
+        verify(tokenRepository, times(1)).deleteAllByIdInBatch(List.of(7L, 8L));
+        assertEquals(2, meterRegistry.get("planazo.sweeper.reset_tokens.purged").counter().count());
+    }
+}
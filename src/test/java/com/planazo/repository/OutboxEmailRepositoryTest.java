@@ -0,0 +1,38 @@
+package com.planazo.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Timeout;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Los tests de integración usan H2Dialect, que no admite SKIP LOCKED; aquí se fija lo que se genera en PostgreSQL
+class OutboxEmailRepositoryTest {
+
+    @Test
+    void findDueForUpdate_OnPostgreSqlLocksWithSkipLocked() throws Exception {
+        // Given
+        Method method = OutboxEmailRepository.class.getMethod("findDueForUpdate", LocalDateTime.class, Pageable.class);
+        QueryHint timeout = Arrays.stream(method.getAnnotation(QueryHints.class).value())
+                .filter(hint -> hint.name().equals("jakarta.persistence.lock.timeout"))
+                .findFirst()
+                .orElseThrow();
+
+        // When
+        String lockClause = new PostgreSQLDialect()
+                .getWriteLockString(Timeout.milliseconds(Integer.parseInt(timeout.value())));
+
+        // Then
+        assertEquals(LockModeType.PESSIMISTIC_WRITE, method.getAnnotation(Lock.class).value());
+        assertTrue(lockClause.contains("skip locked"), lockClause);
+    }
+}
@@ -0,0 +1,135 @@
+package com.planazo.repository;
+
+import com.planazo.model.Category;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de inserción de planes: compara el mismo volumen de inserts sin lotes
+ * (batch size 1, como con IDENTITY) y con lotes JDBC de 50. Se ejecuta con {@code mvn verify}.
+ * Contra H2 en memoria la diferencia es menor que contra PostgreSQL, donde cada
+ * sentencia sin lote es un viaje de red.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.datasource.url=jdbc:h2:mem:batchdb;DB_CLOSE_DELAY=-1"
+)
+@Slf4j
+class PlanInsertBatchingIT {
+
+    private static final int PLANS = 10_000;
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private User creator;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.findAll().stream()
+                .findFirst()
+                .orElseGet(() -> categoryRepository.save(Category.builder()
+                        .name("Batching")
+                        .active(true)
+                        .build()));
+        creator = userRepository.save(User.builder()
+                .email("batching@planazo.com")
+                .passwordHash("not-a-real-hash")
+                .name("Batching User")
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        planRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void insertThroughput_RowByRowVersusBatched() {
+        // Given - una ronda de calentamiento de cada modo
+        insertPlans(1);
+        insertPlans(50);
+        planRepository.deleteAllInBatch();
+
+        // When
+        long rowByRow = insertPlans(1);
+        long batched = insertPlans(50);
+
+        // Then
+        report("batch_size=1", rowByRow);
+        report("batch_size=50", batched);
+        log.info(String.format(Locale.ROOT, "[plan-insert-batching] speedup=%.2fx", (double) rowByRow / batched));
+
+        assertEquals(2L * PLANS, planRepository.count());
+    }
+
+    // Inserta PLANS planes en una transacción con el tamaño de lote indicado y devuelve los nanosegundos
+    private long insertPlans(int batchSize) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            Category categoryRef = entityManager.getReference(Category.class, category.getId());
+            User creatorRef = entityManager.getReference(User.class, creator.getId());
+
+            for (int i = 0; i < PLANS; i++) {
+                entityManager.persist(Plan.builder()
+                        .title("Plan " + i)
+                        .category(categoryRef)
+                        .creator(creatorRef)
+                        .location("Madrid")
+                        .eventDate(LocalDateTime.now().plusDays(1 + i % 30))
+                        .maxParticipants(10)
+                        .currentParticipants(1)
+                        .status(PlanStatus.ACTIVE)
+                        .build());
+
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    categoryRef = entityManager.getReference(Category.class, category.getId());
+                    creatorRef = entityManager.getReference(User.class, creator.getId());
+                }
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String mode, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info(String.format(Locale.ROOT, "[plan-insert-batching] %s plans=%d elapsed=%.2fs throughput=%.0f rows/s",
+                mode, PLANS, seconds, PLANS / seconds));
+    }
+}
@@ -0,0 +1,72 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanSnapshot;
+import com.planazo.model.PlanStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanGeoIndexTest {
+
+    // Puerta del Sol, Madrid
+    private static final double SOL_LAT = 40.4168;
+    private static final double SOL_LNG = -3.7038;
+
+    private final LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+
+    private PlanGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlanGeoIndex();
+        index.upsert(plan(1L, 40.4153, -3.6845, 1L, tomorrow));             // Retiro, ~1,7 km
+        index.upsert(plan(2L, 40.4530, -3.6883, 2L, tomorrow.plusDays(7))); // Bernabéu, ~4,2 km
+        index.upsert(plan(3L, 40.4169, -3.7035, 1L, tomorrow));             // Sol, a metros
+        index.upsert(plan(4L, 41.3874, 2.1686, 1L, tomorrow));              // Barcelona
+        index.upsert(plan(5L, null, null, 1L, tomorrow));                   // Sin coordenadas
+    }
+
+    @Test
+    void search_ReturnsPlansInsideRadiusSortedByDistance() {
+        // When
+        List<PlanGeoIndex.GeoHit> hits = index.search(SOL_LAT, SOL_LNG, 10, null, null, null);
+
+        // Then
+        assertEquals(List.of(3L, 1L, 2L), hits.stream().map(PlanGeoIndex.GeoHit::planId).toList());
+        assertEquals(1.65, hits.get(1).distanceKm(), 0.1);
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void search_AppliesCategoryAndDateFilters() {
+        // When
+        List<PlanGeoIndex.GeoHit> byCategory = index.search(SOL_LAT, SOL_LNG, 10, 2L, null, null);
+        List<PlanGeoIndex.GeoHit> byDate = index.search(SOL_LAT, SOL_LNG, 10, null, null, tomorrow.plusDays(1));
+
+        // Then
+        assertEquals(List.of(2L), byCategory.stream().map(PlanGeoIndex.GeoHit::planId).toList());
+        assertEquals(List.of(3L, 1L), byDate.stream().map(PlanGeoIndex.GeoHit::planId).toList());
+    }
+
+    @Test
+    void upsertAndRemove_KeepIndexCurrent() {
+        // Given - el plan de Barcelona se mueve al centro de Madrid
+        index.upsert(plan(4L, 40.4200, -3.7050, 1L, tomorrow));
+        index.remove(3L);
+
+        // When
+        List<PlanGeoIndex.GeoHit> hits = index.search(SOL_LAT, SOL_LNG, 1, null, null, null);
+
+        // Then
+        assertEquals(List.of(4L), hits.stream().map(PlanGeoIndex.GeoHit::planId).toList());
+        assertTrue(index.search(41.3874, 2.1686, 5, null, null, null).isEmpty());
+    }
+
+    private static PlanSnapshot plan(Long id, Double lat, Double lng, Long categoryId, LocalDateTime eventDate) {
+        return new PlanSnapshot(id, "Plan " + id, null, "Madrid", lat, lng, eventDate, categoryId, PlanStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.planazo.search;
+
+import com.planazo.event.PlanSnapshot;
+import com.planazo.model.PlanStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanTextIndexTest {
+
+    private PlanTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlanTextIndex();
+        index.upsert(plan(1L, "Café y charla", "Quedada tranquila para practicar idiomas", "Malasaña, Madrid"));
+        index.upsert(plan(2L, "Ruta en bici", "Terminamos tomando un café en el centro", "Casa de Campo, Madrid"));
+        index.upsert(plan(3L, "Partido de pádel", "Nivel intermedio", "Valencia"));
+    }
+
+    @Test
+    void search_IgnoresAccentsAndCase() {
+        // When
+        List<Long> ids = planIds(index.search("CAFE"));
+
+        // Then
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveDescriptionMatches() {
+        // When
+        List<PlanTextIndex.TextHit> hits = index.search("café");
+
+        // Then
+        assertEquals(1L, hits.get(0).planId());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_IgnoresStopwordsAndMatchesLocation() {
+        // When
+        List<Long> madrid = planIds(index.search("de madrid"));
+        List<Long> stopwordsOnly = planIds(index.search("de la en"));
+
+        // Then
+        assertEquals(2, madrid.size());
+        assertTrue(madrid.containsAll(List.of(1L, 2L)));
+        assertTrue(stopwordsOnly.isEmpty());
+    }
+
+    @Test
+    void upsertAndRemove_KeepIndexCurrent() {
+        // Given
+        index.upsert(plan(3L, "Padel y café", "Nivel intermedio", "Valencia"));
+        index.remove(1L);
+
+        // When
+        List<Long> ids = planIds(index.search("cafe"));
+
+        // Then
+        assertEquals(List.of(3L, 2L), ids);
+        assertEquals(2, index.size());
+        assertTrue(index.search("malasana").isEmpty());
+    }
+
+    private static List<Long> planIds(List<PlanTextIndex.TextHit> hits) {
+        return hits.stream().map(PlanTextIndex.TextHit::planId).toList();
+    }
+
+    private static PlanSnapshot plan(Long id, String title, String description, String location) {
+        return new PlanSnapshot(id, title, description, location, null, null,
+                LocalDateTime.now().plusDays(1), 1L, PlanStatus.ACTIVE);
+    }
+}
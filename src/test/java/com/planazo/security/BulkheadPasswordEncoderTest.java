@@ -0,0 +1,87 @@
+package com.planazo.security;
+
+import com.planazo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadPasswordEncoderTest {
+
+    @Test
+    void encode_RunsOnTheHashingPool() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordEncoder delegate = new FakeEncoder(new CountDownLatch(0));
+
+        try (BulkheadPasswordEncoder encoder = new BulkheadPasswordEncoder(
+                delegate, registry, 1, 1, Duration.ofSeconds(5), 1)) {
+            // When
+            String hash = encoder.encode("secret");
+
+            // Then
+            assertEquals("hashed:secret@password-hashing-1", hash);
+            assertTrue(encoder.matches("secret", hash));
+        }
+    }
+
+    @Test
+    void encode_PoolSaturated_ThrowsServiceUnavailable() throws Exception {
+        // Given - un hilo ocupado y la única plaza de la cola también
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try (BulkheadPasswordEncoder encoder = new BulkheadPasswordEncoder(
+                new FakeEncoder(release), registry, 1, 1, Duration.ofSeconds(5), 3)) {
+            callers.submit(() -> encoder.encode("a"));
+            callers.submit(() -> encoder.encode("b"));
+            waitUntil(() -> registry.get("executor.queued").gauge().value() == 1);
+
+            // When & Then
+            ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                    () -> encoder.encode("c"));
+            assertEquals(3, ex.getRetryAfterSeconds());
+            assertEquals(1, registry.get("planazo.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condición no alcanzada a tiempo");
+            Thread.sleep(10);
+        }
+    }
+
+    // Codificador trivial que deja ver en qué hilo se ejecuta y puede quedarse bloqueado
+    private record FakeEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword + "@" + Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.startsWith("hashed:" + rawPassword + "@");
+        }
+    }
+}
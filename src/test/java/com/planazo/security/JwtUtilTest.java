@@ -0,0 +1,106 @@
+package com.planazo.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "TestSecretKeyForJWTTokensInUnitTests2025ChangeInProduction");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        jwtUtil.init();
+    }
+
+    @Test
+    void verify_ReturnsClaimsFromGeneratedToken() {
+        // Given
+        String token = jwtUtil.generateToken("test@planazo.com", 42L, 3);
+
+        // When
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        // Then
+        assertEquals("test@planazo.com", verified.subject());
+        assertEquals(42L, verified.userId());
+        assertEquals(3, verified.tokenEpoch());
+        assertNotNull(verified.issuedAt());
+        assertFalse(verified.isExpired());
+    }
+
+    @Test
+    void verify_SameToken_IsServedFromCache() {
+        // Given
+        String token = jwtUtil.generateToken("test@planazo.com", 42L, 3);
+
+        // When
+        VerifiedToken first = jwtUtil.verify(token);
+        VerifiedToken second = jwtUtil.verify(token);
+
+        // Then - misma instancia: no se ha vuelto a parsear
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_TamperedToken_Throws() {
+        // Given
+        String token = jwtUtil.generateToken("test@planazo.com", 42L, 3);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void restartWithNewKeys_OldTokensVerifyUntilTheirKeyIsRetired() {
+        // Given - token firmado con la clave inicial (kid "default")
+        String oldToken = jwtUtil.generateToken("test@planazo.com", 42L, 3);
+
+        // When - se reinicia firmando con una clave nueva y conservando la anterior para verificar
+        JwtUtil rotated = newJwtUtil("default:TestSecretKeyForJWTTokensInUnitTests2025ChangeInProduction,"
+                + "2025-07:OtraClaveDePruebaParaFirmarTokensJWTEn2025", "2025-07");
+        String newToken = rotated.generateToken("test@planazo.com", 42L, 3);
+
+        // Then
+        assertTrue(rotated.validateToken(oldToken));
+        assertTrue(rotated.validateToken(newToken));
+
+        // When - se reinicia sin la clave antigua
+        JwtUtil retired = newJwtUtil("2025-07:OtraClaveDePruebaParaFirmarTokensJWTEn2025", "2025-07");
+
+        // Then
+        assertFalse(retired.validateToken(oldToken));
+        assertTrue(retired.validateToken(newToken));
+    }
+
+    @Test
+    void validateToken_WithUserDetails_ChecksSubject() {
+        // Given
+        String token = jwtUtil.generateToken("test@planazo.com", 42L, 3);
+
+        // When & Then
+        assertTrue(jwtUtil.validateToken(token, org.springframework.security.core.userdetails.User
+                .withUsername("test@planazo.com").password("x").build()));
+        assertFalse(jwtUtil.validateToken(token, org.springframework.security.core.userdetails.User
+                .withUsername("otro@planazo.com").password("x").build()));
+    }
+
+    private static JwtUtil newJwtUtil(String keys, String currentKid) {
+        JwtUtil instance = new JwtUtil();
+        ReflectionTestUtils.setField(instance, "keys", keys);
+        ReflectionTestUtils.setField(instance, "currentKid", currentKid);
+        ReflectionTestUtils.setField(instance, "expiration", 3600000L);
+        ReflectionTestUtils.setField(instance, "cacheMaxSize", 100);
+        instance.init();
+        return instance;
+    }
+}
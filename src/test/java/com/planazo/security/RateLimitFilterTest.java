@@ -0,0 +1,151 @@
+package com.planazo.security;
+
+import com.planazo.controller.AuthController;
+import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.response.AuthResponse;
+import com.planazo.service.PasswordResetService;
+import com.planazo.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PasswordResetService passwordResetService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Límites de login por IP y de creación de planes altos o bajos según lo que mida cada test
+        RateLimitFilter filter = new RateLimitFilter(jwtUtil, JsonMapper.builder().build(), meterRegistry,
+                true, 1000, "100/PT1M", "2/PT1M", "100/PT1M", "100/PT1M", "100/PT1M", "100/PT1M", "1/PT1M");
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new AuthController(userService, passwordResetService), new StubPlanController())
+                .addFilters(filter)
+                .build();
+    }
+
+    @Test
+    void login_OverEmailLimit_Returns429WithRetryAfterAndErrorBody() throws Exception {
+        // Given - el email se normaliza: las tres variantes comparten bucket
+        when(userService.login(any())).thenReturn(new AuthResponse());
+        mockMvc.perform(login("Ana@Planazo.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(login("ana@PLANAZO.com", "10.0.0.2")).andExpect(status().isOk());
+
+        // When & Then - distinta IP, mismo email: lo frena la regla por email
+        mockMvc.perform(login("ANA@planazo.com", "10.0.0.3"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(HttpStatus.TOO_MANY_REQUESTS.value()))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andExpect(jsonPath("$.path").value("/api/auth/login"));
+
+        verify(userService, times(2)).login(any());
+        assertEquals(1, meterRegistry.get("planazo.ratelimit.rejected").tag("rule", "login-email").counter().count());
+        assertEquals(0, meterRegistry.get("planazo.ratelimit.rejected").tag("rule", "login-ip").counter().count());
+    }
+
+    @Test
+    void login_BodyReadByTheFilter_IsStillBoundByTheController() throws Exception {
+        // Given
+        when(userService.login(any())).thenReturn(new AuthResponse());
+
+        // When
+        mockMvc.perform(login("Ana@Planazo.com", "10.0.0.1")).andExpect(status().isOk());
+
+        // Then - el controlador recibe el cuerpo original, sin normalizar
+        ArgumentCaptor<LoginRequest> captor = ArgumentCaptor.forClass(LoginRequest.class);
+        verify(userService).login(captor.capture());
+        assertEquals("Ana@Planazo.com", captor.getValue().getEmail());
+        assertEquals("password123", captor.getValue().getPassword());
+    }
+
+    @Test
+    void createPlan_IsKeyedByTheUserIdOfTheBearerToken() throws Exception {
+        // Given - dos tokens distintos del mismo usuario y uno de otro usuario
+        when(jwtUtil.verify("token-a")).thenReturn(verified(7L));
+        when(jwtUtil.verify("token-b")).thenReturn(verified(7L));
+        when(jwtUtil.verify("token-c")).thenReturn(verified(8L));
+
+        // When & Then
+        mockMvc.perform(createPlan("token-a")).andExpect(status().isCreated());
+        mockMvc.perform(createPlan("token-b")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(createPlan("token-c")).andExpect(status().isCreated());
+
+        assertEquals(1, meterRegistry.get("planazo.ratelimit.rejected").tag("rule", "plan-create-user").counter().count());
+    }
+
+    @Test
+    void createPlan_WithoutToken_IsNotLimitedHere() throws Exception {
+        // When & Then - sin usuario la regla no aplica; el 401 lo pone la seguridad más adelante
+        mockMvc.perform(post("/api/plans")).andExpect(status().isCreated());
+        mockMvc.perform(post("/api/plans")).andExpect(status().isCreated());
+
+        verifyNoInteractions(jwtUtil);
+    }
+
+    private static MockHttpServletRequestBuilder login(String email, String ip) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"password123\"}")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                });
+    }
+
+    private static MockHttpServletRequestBuilder createPlan(String token) {
+        return post("/api/plans").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static VerifiedToken verified(Long userId) {
+        Instant now = Instant.now();
+        return new VerifiedToken("user" + userId + "@planazo.com", userId, 0, now, now.plusSeconds(3600));
+    }
+
+    // Sustituye a PlanController: aquí solo interesa si la petición llega o no
+    @RestController
+    static class StubPlanController {
+
+        @PostMapping("/api/plans")
+        ResponseEntity<List<String>> create() {
+            return ResponseEntity.status(HttpStatus.CREATED).body(List.of());
+        }
+    }
+}
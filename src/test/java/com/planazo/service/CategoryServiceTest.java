@@ -0,0 +1,93 @@
+package com.planazo.service;
+
+import com.planazo.model.Category;
+import com.planazo.repository.CategoryRepository;
+import com.planazo.service.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryServiceImpl categoryService;
+
+    @BeforeEach
+    void setUp() {
+        categoryService = new CategoryServiceImpl(categoryRepository, JsonMapper.builder().build());
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                category(1L, "Deportes", true),
+                category(2L, "Cultura", false)
+        ));
+    }
+
+    @Test
+    void reads_AreServedFromSnapshotAfterFirstLoad() {
+        // When
+        categoryService.getAllCategories();
+        categoryService.getActiveCategories();
+        categoryService.getCategoryById(1L);
+        Category entity = categoryService.getCategoryEntityById(2L);
+
+        // Then
+        assertEquals("Cultura", entity.getName());
+        assertEquals(1, categoryService.getActiveCategories().size());
+        verify(categoryRepository, times(1)).findAll(any(Sort.class));
+        verify(categoryRepository, never()).findById(any());
+    }
+
+    @Test
+    void getSerializedCategories_ReturnsJsonWithStableStrongEtag() {
+        // When
+        CategoryService.SerializedCategories first = categoryService.getSerializedCategories(true);
+        CategoryService.SerializedCategories second = categoryService.getSerializedCategories(true);
+        CategoryService.SerializedCategories all = categoryService.getSerializedCategories(false);
+
+        // Then
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("Deportes"));
+        assertFalse(json.contains("Cultura"));
+        assertTrue(first.etag().startsWith("\"") && !first.etag().startsWith("W/"));
+        assertSame(first, second);
+        assertNotEquals(first.etag(), all.etag());
+    }
+
+    @Test
+    void refreshCache_ReplacesSnapshotAndEtag() {
+        // Given
+        String before = categoryService.getSerializedCategories(false).etag();
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                category(1L, "Deportes", true),
+                category(2L, "Cultura", true)
+        ));
+
+        // When
+        categoryService.refreshCache();
+
+        // Then
+        assertNotEquals(before, categoryService.getSerializedCategories(false).etag());
+        assertEquals(2, categoryService.getActiveCategories().size());
+    }
+
+    private static Category category(Long id, String name, boolean active) {
+        return Category.builder()
+                .id(id)
+                .name(name)
+                .active(active)
+                .build();
+    }
+}
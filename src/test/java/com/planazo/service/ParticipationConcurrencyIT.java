@@ -0,0 +1,232 @@
+package com.planazo.service;
+
+import com.planazo.exception.BadRequestException;
+import com.planazo.exception.ForbiddenException;
+import com.planazo.exception.ResourceNotFoundException;
+import com.planazo.model.Category;
+import com.planazo.model.ParticipationStatus;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import com.planazo.repository.CategoryRepository;
+import com.planazo.repository.ParticipationRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de estrés del camino de escritura de participaciones.
+ * Lanza miles de joins, leaves y removes concurrentes (hilos virtuales) contra pocos planes
+ * y comprueba los invariantes del contador. Se ejecuta con {@code mvn verify}.
+ */
+@SpringBootTest
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:stressdb;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+                // La espera de admisión debe cubrir LOCK_TIMEOUT: aquí se mide contención, no rechazos del gate
+                "db.gate.max-wait=PT30S"
+        }
+)
+@Slf4j
+class ParticipationConcurrencyIT {
+
+    private static final int USERS = 300;
+    private static final int PLANS = 4;
+    private static final int MAX_PARTICIPANTS = 25;
+    private static final int OPERATIONS = 4000;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ParticipationRepository participationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Plan> plans = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.findAll().stream()
+                .findFirst()
+                .orElseGet(() -> categoryRepository.save(Category.builder()
+                        .name("Stress")
+                        .active(true)
+                        .build()));
+
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(newUser("stress" + i + "@planazo.com")).getId());
+        }
+
+        for (int i = 0; i < PLANS; i++) {
+            User creator = userRepository.save(newUser("creator" + i + "@planazo.com"));
+            plans.add(planRepository.save(Plan.builder()
+                    .title("Plan de estrés " + i)
+                    .category(category)
+                    .creator(creator)
+                    .location("Madrid")
+                    .eventDate(LocalDateTime.now().plusDays(7))
+                    .maxParticipants(MAX_PARTICIPANTS)
+                    .currentParticipants(1)
+                    .status(PlanStatus.ACTIVE)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        participationRepository.deleteAllInBatch();
+        planRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentJoinsAndLeaves_KeepParticipantCountConsistent() throws Exception {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        long[] latencies = new long[OPERATIONS];
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger oversoldSamples = new AtomicInteger();
+
+        // Mientras dura la carga se muestrea el estado confirmado: ningún plan puede pasar de su máximo
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (running.get()) {
+                try {
+                    Integer oversold = jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM plans WHERE current_participants > max_participants", Integer.class);
+                    if (oversold != null && oversold > 0) {
+                        oversoldSamples.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    unexpected.add(e);
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        });
+
+        // When
+        long begin;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                int index = i;
+                Plan plan = plans.get(random.nextInt(plans.size()));
+                Long userId = userIds.get(random.nextInt(userIds.size()));
+                int dice = random.nextInt(10);
+
+                executor.submit(() -> {
+                    start.await();
+                    long t0 = System.nanoTime();
+                    try {
+                        if (dice < 6) {
+                            participationService.joinPlan(plan.getId(), userId);
+                        } else if (dice < 9) {
+                            participationService.leavePlan(plan.getId(), userId);
+                        } else {
+                            participationService.removeParticipant(plan.getId(), userId, plan.getCreator().getId());
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (BadRequestException | ResourceNotFoundException | ForbiddenException e) {
+                        rejected.incrementAndGet(); // Rechazo de negocio esperado (lleno, no participa...)
+                    } catch (Exception e) {
+                        unexpected.add(e);
+                    } finally {
+                        latencies[index] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - begin;
+        running.set(false);
+        sampler.join();
+
+        // Then
+        report(latencies, elapsed, succeeded.get(), rejected.get());
+
+        assertTrue(unexpected.isEmpty(), () -> "Errores inesperados: " + unexpected.peek());
+        assertEquals(0, oversoldSamples.get(), "Algún plan superó su máximo durante la carga");
+
+        for (Plan plan : plans) {
+            Plan current = planRepository.findById(plan.getId()).orElseThrow();
+            long confirmed = participationRepository.countByPlanIdAndStatus(plan.getId(), ParticipationStatus.CONFIRMED);
+
+            // El creador cuenta como participante pero no tiene fila en participations
+            assertEquals(confirmed + 1, current.getCurrentParticipants().longValue(), "Contador desincronizado en plan " + plan.getId());
+            assertTrue(current.getCurrentParticipants() <= current.getMaxParticipants(), "Plan sobrevendido " + plan.getId());
+            assertEquals(current.isFull() ? PlanStatus.FULL : PlanStatus.ACTIVE, current.getStatus());
+        }
+
+        Integer duplicates = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT plan_id, user_id FROM participations " +
+                        "GROUP BY plan_id, user_id HAVING COUNT(*) > 1) d",
+                Integer.class);
+        assertEquals(0, duplicates);
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .name("Stress User")
+                .active(true)
+                .build();
+    }
+
+    private static void report(long[] latencies, long elapsedNanos, int succeeded, int rejected) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info(String.format(Locale.ROOT,
+                "[participation-stress] ops=%d ok=%d rejected=%d elapsed=%.2fs throughput=%.0f ops/s p50=%.2fms p99=%.2fms max=%.2fms",
+                sorted.length, succeeded, rejected, seconds, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
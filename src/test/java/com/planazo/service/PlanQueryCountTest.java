@@ -0,0 +1,167 @@
+package com.planazo.service;
+
+import com.planazo.dto.response.CursorPageResponse;
+import com.planazo.dto.response.PlanResponse;
+import com.planazo.model.Category;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import com.planazo.repository.CategoryRepository;
+import com.planazo.repository.PlanRepository;
+import com.planazo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static com.planazo.support.QueryCountAssertions.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los listados de planes deben costar siempre las mismas consultas (contenido + count),
+ * sin importar cuántos planes traiga la página.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Transactional
+class PlanQueryCountTest {
+
+    private static final int PLANS_PER_FEED = 30;
+
+    @Autowired
+    private PlanService planService;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category sharedCategory;
+    private User sharedCreator;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            categories.add(categoryRepository.save(Category.builder()
+                    .name("QueryCount " + i)
+                    .active(true)
+                    .build()));
+        }
+        sharedCategory = categories.get(0);
+        sharedCreator = userRepository.save(newUser("shared-creator@planazo.com"));
+
+        // Misma categoría con creadores distintos, y mismo creador con categorías distintas:
+        // con carga perezosa cada fila dispararía su propia consulta. Los planes del creador
+        // compartido evitan la categoría compartida para que su feed tenga exactamente PLANS_PER_FEED
+        for (int i = 0; i < PLANS_PER_FEED; i++) {
+            User creator = userRepository.save(newUser("creator" + i + "@planazo.com"));
+            planRepository.save(newPlan(sharedCategory, creator, i));
+            planRepository.save(newPlan(categories.get(1 + i % (categories.size() - 1)), sharedCreator, i));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getAllPlans_QueryCountIsIndependentOfPageSize() {
+        assertConstantQueryCount(size -> planService.getAllPlans(PageRequest.of(0, size, Sort.by("eventDate"))));
+    }
+
+    @Test
+    void getUpcomingPlans_QueryCountIsIndependentOfPageSize() {
+        assertConstantQueryCount(size -> planService.getUpcomingPlans(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPlansByCategory_QueryCountIsIndependentOfPageSize() {
+        assertConstantQueryCount(size -> planService.getPlansByCategory(sharedCategory.getId(), PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPlansByCreator_QueryCountIsIndependentOfPageSize() {
+        assertConstantQueryCount(size -> planService.getPlansByCreator(sharedCreator.getId(), PageRequest.of(0, size)));
+    }
+
+    @Test
+    void searchPlansByLocation_QueryCountIsIndependentOfPageSize() {
+        assertConstantQueryCount(size -> planService.searchPlansByLocation("madrid", PageRequest.of(0, size)));
+    }
+
+    @Test
+    void getPlansByCategoryFeed_WalksEveryPlanOnceWithOneQueryPerPage() {
+        // Given
+        Set<Long> seen = new HashSet<>();
+        List<CursorPageResponse<PlanResponse>> pages = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            String current = cursor;
+            entityManager.clear();
+            // Sin consulta de conteo: una sola sentencia por página
+            assertQueryCount(1, () ->
+                    pages.add(planService.getPlansByCategoryFeed(sharedCategory.getId(), current, 7)));
+
+            CursorPageResponse<PlanResponse> page = pages.get(pages.size() - 1);
+            page.getContent().forEach(plan -> assertTrue(seen.add(plan.getId())));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(PLANS_PER_FEED, seen.size());
+        assertEquals(5, pages.size());
+        assertFalse(pages.get(pages.size() - 1).getHasNext());
+    }
+
+    // Una consulta para el contenido y otra para el total, tanto con 5 como con 25 elementos
+    private void assertConstantQueryCount(IntConsumer pageLoader) {
+        entityManager.clear();
+        assertQueryCount(2, () -> pageLoader.accept(5));
+
+        entityManager.clear();
+        assertQueryCount(2, () -> pageLoader.accept(25));
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .name("Query Count")
+                .active(true)
+                .build();
+    }
+
+    private static Plan newPlan(Category category, User creator, int i) {
+        return Plan.builder()
+                .title("Plan " + i)
+                .category(category)
+                .creator(creator)
+                .location("Madrid centro")
+                .eventDate(LocalDateTime.now().plusDays(1 + i))
+                .maxParticipants(10)
+                .currentParticipants(1)
+                .status(PlanStatus.ACTIVE)
+                .build();
+    }
+}
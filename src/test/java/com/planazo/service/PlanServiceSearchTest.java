@@ -0,0 +1,113 @@
+package com.planazo.service;
+
+import com.planazo.dto.response.PlanResponse;
+import com.planazo.model.Category;
+import com.planazo.model.Plan;
+import com.planazo.model.PlanStatus;
+import com.planazo.model.User;
+import com.planazo.repository.PlanRepository;
+import com.planazo.search.PlanGeoIndex;
+import com.planazo.search.PlanTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanServiceSearchTest {
+
+    // El índice aún tiene el plan 2, que ya se canceló en la base de datos
+    private static final Set<Long> OPEN = Set.of(1L, 3L, 4L, 5L);
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlanGeoIndex planGeoIndex;
+
+    @Mock
+    private PlanTextIndex planTextIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlanServiceImpl planService;
+
+    @BeforeEach
+    void setUp() {
+        planService = new PlanServiceImpl(planRepository, categoryService, userService,
+                planGeoIndex, planTextIndex, eventPublisher);
+
+        when(planTextIndex.search("yoga")).thenReturn(List.of(
+                new PlanTextIndex.TextHit(1L, 5.0),
+                new PlanTextIndex.TextHit(2L, 4.0),
+                new PlanTextIndex.TextHit(3L, 3.0),
+                new PlanTextIndex.TextHit(4L, 2.0),
+                new PlanTextIndex.TextHit(5L, 1.0)));
+        when(planRepository.findIdsByIdInAndStatusIn(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().filter(OPEN::contains).toList());
+    }
+
+    @Test
+    void searchPlans_SkipsStaleHitsBeforePaging() {
+        // Given
+        when(planRepository.findByIdInAndStatusIn(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(PlanServiceSearchTest::plan).toList());
+
+        // When
+        Page<PlanResponse> first = planService.searchPlans("yoga", PageRequest.of(0, 2));
+        Page<PlanResponse> second = planService.searchPlans("yoga", PageRequest.of(1, 2));
+
+        // Then - páginas completas y el total sin el acierto obsoleto
+        assertEquals(List.of(1L, 3L), first.getContent().stream().map(PlanResponse::getId).toList());
+        assertEquals(List.of(4L, 5L), second.getContent().stream().map(PlanResponse::getId).toList());
+        assertEquals(4, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void searchPlans_PastTheLastPage_ReturnsEmptyWithoutLoadingPlans() {
+        // When
+        Page<PlanResponse> page = planService.searchPlans("yoga", PageRequest.of(5, 2));
+
+        // Then
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(4, page.getTotalElements());
+        verify(planRepository, never()).findByIdInAndStatusIn(anyCollection(), any());
+    }
+
+    private static Plan plan(Long id) {
+        return Plan.builder()
+                .id(id)
+                .title("Yoga " + id)
+                .category(Category.builder().id(1L).name("Deporte").active(true).build())
+                .creator(User.builder().id(1L).email("creator@planazo.com").name("Creator").active(true).build())
+                .location("Madrid")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .maxParticipants(10)
+                .currentParticipants(1)
+                .status(PlanStatus.ACTIVE)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.planazo.service;
 
 import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.request.RegisterRequest;
 import com.planazo.dto.response.AuthResponse;
 import com.planazo.exception.UnauthorizedException;
 import com.planazo.model.User;
@@ -13,15 +14,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -38,7 +37,7 @@ class UserServiceLoginTest {
     private JwtUtil jwtUtil;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private RefreshTokenService refreshTokenService;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -65,10 +64,10 @@ class UserServiceLoginTest {
     @Test
     void login_Success() {
         // Given
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(null); // Autenticación exitosa
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
-        when(jwtUtil.generateToken(anyString(), any(Long.class))).thenReturn("fake.jwt.token");
+        when(userRepository.findByEmail("test@planazo.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "hashedPassword")).thenReturn(true);
+        when(jwtUtil.generateToken(anyString(), any(Long.class), anyInt())).thenReturn("fake.jwt.token");
+        when(refreshTokenService.issue(user)).thenReturn("fake-refresh-token");
 
         // When
         AuthResponse response = userService.login(loginRequest);
@@ -77,42 +76,95 @@ class UserServiceLoginTest {
         assertNotNull(response);
         assertEquals("fake.jwt.token", response.getToken());
         assertEquals("Bearer", response.getType());
+        assertEquals("fake-refresh-token", response.getRefreshToken());
         assertNotNull(response.getUser());
         assertEquals("test@planazo.com", response.getUser().getEmail());
 
-        verify(authenticationManager, times(1)).authenticate(any());
-        verify(jwtUtil, times(1)).generateToken("test@planazo.com", 1L);
+        verify(userRepository, times(1)).findByEmail(anyString());
+        verify(jwtUtil, times(1)).generateToken("test@planazo.com", 1L, 0);
+        verify(userRepository, never()).updatePasswordHash(any(), any());
     }
 
     @Test
     void login_InvalidCredentials_ThrowsUnauthorizedException() {
         // Given
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new BadCredentialsException("Bad credentials"));
+        when(userRepository.findByEmail("test@planazo.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "hashedPassword")).thenReturn(false);
 
         // When & Then
         assertThrows(UnauthorizedException.class, () -> {
             userService.login(loginRequest);
         });
 
-        verify(authenticationManager, times(1)).authenticate(any());
-        verify(userRepository, never()).findByEmail(anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), any());
+        verify(jwtUtil, never()).generateToken(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void login_UnknownEmail_StillVerifiesAgainstADummyHash() {
+        // Given
+        when(userRepository.findByEmail("test@planazo.com")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("dummyHash");
+
+        // When & Then
+        assertThrows(UnauthorizedException.class, () -> {
+            userService.login(loginRequest);
+        });
+
+        // Mismo trabajo de BCrypt que con un email existente
+        verify(passwordEncoder, times(1)).matches("password123", "dummyHash");
+        verify(jwtUtil, never()).generateToken(anyString(), any(), anyInt());
     }
 
     @Test
     void login_InactiveUser_ThrowsUnauthorizedException() {
         // Given
         user.setActive(false);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(null);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("test@planazo.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "hashedPassword")).thenReturn(true);
 
         // When & Then
         assertThrows(UnauthorizedException.class, () -> {
             userService.login(loginRequest);
         });
 
-        verify(jwtUtil, never()).generateToken(anyString(), any());
+        verify(jwtUtil, never()).generateToken(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void login_OutdatedHash_IsRehashed() {
+        // Given
+        when(userRepository.findByEmail("test@planazo.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("strongerHash");
+
+        // When
+        userService.login(loginRequest);
+
+        // Then
+        verify(userRepository, times(1)).updatePasswordHash(1L, "strongerHash");
+    }
+
+    @Test
+    void register_IssuesTokenWithoutAuthenticatingAgain() {
+        // Given
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .email("Test@Planazo.com")
+                .password("password123")
+                .name("Test User")
+                .build();
+        when(userRepository.existsByEmail("test@planazo.com")).thenReturn(false);
+        when(passwordEncoder.encode("password123")).thenReturn("hashedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
+        when(jwtUtil.generateToken("test@planazo.com", 1L, 0)).thenReturn("fake.jwt.token");
+
+        // When
+        AuthResponse response = userService.register(registerRequest);
+
+        // Then - un solo BCrypt y ninguna consulta de login
+        assertEquals("fake.jwt.token", response.getToken());
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userRepository, never()).findByEmail(anyString());
     }
 }
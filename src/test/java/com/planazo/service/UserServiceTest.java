@@ -1,6 +1,7 @@
 package com.planazo.service;
 
 import com.planazo.dto.request.LoginRequest;
+import com.planazo.dto.request.RefreshTokenRequest;
 import com.planazo.dto.request.RegisterRequest;
 import com.planazo.dto.response.AuthResponse;
 import com.planazo.dto.response.UserResponse;
@@ -52,9 +53,12 @@ class UserServiceTest {
     @Test
     void register_Success() {
         // When
-        UserResponse response = userService.register(registerRequest);
+        AuthResponse authResponse = userService.register(registerRequest);
 
-        // Then
+        // Then - el registro ya devuelve el token, sin login aparte
+        assertNotNull(authResponse.getToken());
+        assertEquals("Bearer", authResponse.getType());
+        UserResponse response = authResponse.getUser();
         assertNotNull(response);
         assertNotNull(response.getId());
         assertEquals("test@planazo.com", response.getEmail());
@@ -80,7 +84,7 @@ class UserServiceTest {
         registerRequest.setEmail("TEST@PLANAZO.COM");
 
         // When
-        UserResponse response = userService.register(registerRequest);
+        UserResponse response = userService.register(registerRequest).getUser();
 
         // Then
         assertEquals("test@planazo.com", response.getEmail());
@@ -138,6 +142,51 @@ class UserServiceTest {
         });
     }
 
+    @Test
+    void refresh_RotatesTheRefreshToken() {
+        // Given
+        AuthResponse session = userService.register(registerRequest);
+        assertNotNull(session.getRefreshToken());
+
+        // When
+        AuthResponse refreshed = userService.refresh(new RefreshTokenRequest(session.getRefreshToken()));
+
+        // Then
+        assertNotNull(refreshed.getToken());
+        assertNotNull(refreshed.getRefreshToken());
+        assertNotEquals(session.getRefreshToken(), refreshed.getRefreshToken());
+        assertEquals("test@planazo.com", refreshed.getUser().getEmail());
+    }
+
+    @Test
+    void refresh_ReusedToken_RevokesTheWholeSession() {
+        // Given - el token original ya se rotó una vez
+        AuthResponse session = userService.register(registerRequest);
+        AuthResponse refreshed = userService.refresh(new RefreshTokenRequest(session.getRefreshToken()));
+
+        // When & Then - reutilizarlo delata una copia y cierra la sesión
+        assertThrows(UnauthorizedException.class, () -> {
+            userService.refresh(new RefreshTokenRequest(session.getRefreshToken()));
+        });
+        assertThrows(UnauthorizedException.class, () -> {
+            userService.refresh(new RefreshTokenRequest(refreshed.getRefreshToken()));
+        });
+    }
+
+    @Test
+    void logout_RevokesTheRefreshToken() {
+        // Given
+        AuthResponse session = userService.register(registerRequest);
+
+        // When
+        userService.logout(new RefreshTokenRequest(session.getRefreshToken()));
+
+        // Then
+        assertThrows(UnauthorizedException.class, () -> {
+            userService.refresh(new RefreshTokenRequest(session.getRefreshToken()));
+        });
+    }
+
     @Test
     void getUserByEmail_Success() {
         // Given
@@ -155,7 +204,7 @@ class UserServiceTest {
     @Test
     void updateProfile_Success() {
         // Given
-        UserResponse registeredUser = userService.register(registerRequest);
+        UserResponse registeredUser = userService.register(registerRequest).getUser();
 
         com.planazo.dto.request.UpdateProfileRequest updateRequest =
                 com.planazo.dto.request.UpdateProfileRequest.builder()
@@ -177,7 +226,7 @@ class UserServiceTest {
     @Test
     void deleteAccount_Success() {
         // Given
-        UserResponse registeredUser = userService.register(registerRequest);
+        UserResponse registeredUser = userService.register(registerRequest).getUser();
 
         // When
         userService.deleteAccount(registeredUser.getId());
@@ -185,5 +234,6 @@ class UserServiceTest {
         // Then
         User user = userRepository.findById(registeredUser.getId()).orElseThrow();
         assertFalse(user.getActive()); // Soft delete - usuario desactivado
+        assertEquals(1, user.getTokenEpoch()); // Los access tokens emitidos dejan de valer
     }
 }
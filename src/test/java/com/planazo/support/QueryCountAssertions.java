@@ -0,0 +1,30 @@
+package com.planazo.support;
+
+import com.planazo.metrics.QueryStats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cuenta las sentencias que llegan al DataSource mientras se ejecuta un bloque,
+ * para fijar en los tests cuántas consultas cuesta cada operación.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static QueryStats countQueries(Runnable action) {
+        QueryStats stats = QueryStats.begin();
+        try {
+            action.run();
+        } finally {
+            QueryStats.end();
+        }
+        return stats;
+    }
+
+    public static void assertQueryCount(int expected, Runnable action) {
+        QueryStats stats = countQueries(action);
+        assertEquals(expected, stats.getCount(), () -> "Unexpected SQL statements: " + stats.getShapes());
+    }
+}
@@ -0,0 +1,90 @@
+package com.planazo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ReturnsKeysWhenTheirDeadlinePasses() {
+        // Given - 4 huecos x 3 niveles: 4, 16 y 64 ticks de alcance
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 4, 3, START);
+        wheel.schedule("soon", START + 2_000);
+        wheel.schedule("later", START + 30_000);
+        wheel.schedule("beyond-range", START + 500_000);
+        wheel.schedule("overdue", START - 5_000);
+
+        // When & Then
+        assertEquals(List.of("overdue"), wheel.advance(START + 1_000));
+        assertEquals(List.of("soon"), wheel.advance(START + 2_000));
+        assertEquals(List.of(), wheel.advance(START + 29_999));
+        assertEquals(List.of("later"), wheel.advance(START + 30_000));
+        assertEquals(List.of(), wheel.advance(START + 499_000));
+        assertEquals(List.of("beyond-range"), wheel.advance(START + 500_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void scheduleAndCancel_ReplaceThePreviousDeadline() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, START);
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 5_000);
+
+        // When
+        wheel.schedule(1L, START + 40_000);
+        assertTrue(wheel.cancel(2L));
+
+        // Then
+        assertEquals(List.of(), wheel.advance(START + 10_000));
+        assertFalse(wheel.cancel(2L));
+        assertEquals(List.of(1L), wheel.advance(START + 40_000));
+    }
+
+    @Test
+    void advance_MatchesABruteForceScheduleUnderRandomOperations() {
+        // Given
+        SplittableRandom random = new SplittableRandom(7);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, START);
+        Map<Integer, Long> expected = new HashMap<>();
+        long now = START;
+
+        // When & Then
+        for (int step = 0; step < 20_000; step++) {
+            int key = random.nextInt(300);
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                long deadline = now + random.nextLong(2_000_000) - 2_000;
+                wheel.schedule(key, deadline);
+                expected.put(key, Math.max(Math.ceilDiv(deadline, 1000), now / 1000 + 1));
+            } else if (operation < 6) {
+                wheel.cancel(key);
+                expected.remove(key);
+            } else {
+                now += random.nextInt(5_000);
+                long tick = now / 1000;
+                List<Integer> due = wheel.advance(now);
+                List<Integer> dueExpected = new ArrayList<>();
+                expected.forEach((k, deadlineTick) -> {
+                    if (deadlineTick <= tick) {
+                        dueExpected.add(k);
+                    }
+                });
+                assertEquals(new HashSet<>(dueExpected), new HashSet<>(due));
+                assertEquals(dueExpected.size(), due.size());
+                dueExpected.forEach(expected::remove);
+            }
+            assertEquals(expected.size(), wheel.size());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.planazo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_AllowsTheBurstThenRefillsOverTime() {
+        // Given - 3 peticiones de ráfaga, un token nuevo por segundo
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketTable table = new TokenBucketTable(100, 4, clock::get);
+
+        // When & Then
+        assertEquals(0, table.tryAcquire("ip:1", 3, SECOND));
+        assertEquals(0, table.tryAcquire("ip:1", 3, SECOND));
+        assertEquals(0, table.tryAcquire("ip:1", 3, SECOND));
+        assertEquals(SECOND, table.tryAcquire("ip:1", 3, SECOND));
+
+        // Otra clave tiene su propio bucket
+        assertEquals(0, table.tryAcquire("ip:2", 3, SECOND));
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(SECOND / 2, table.tryAcquire("ip:1", 3, SECOND));
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, table.tryAcquire("ip:1", 3, SECOND));
+
+        // Inactiva mucho tiempo: no acumula más de la capacidad
+        clock.addAndGet(100 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, table.tryAcquire("ip:1", 3, SECOND));
+        }
+        assertTrue(table.tryAcquire("ip:1", 3, SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_ManyDistinctKeys_KeepsTheTableBounded() {
+        // Given
+        TokenBucketTable table = new TokenBucketTable(64, 4, () -> 0L);
+
+        // When - rociado de claves distintas
+        for (int i = 0; i < 10_000; i++) {
+            table.tryAcquire("email:user" + i + "@planazo.com", 5, SECOND);
+        }
+
+        // Then
+        assertTrue(table.size() <= 64, "La tabla creció hasta " + table.size());
+    }
+
+    @Test
+    void toRetryAfterSeconds_RoundsUpToWholeSeconds() {
+        assertEquals(1, TokenBucketTable.toRetryAfterSeconds(1));
+        assertEquals(1, TokenBucketTable.toRetryAfterSeconds(SECOND));
+        assertEquals(2, TokenBucketTable.toRetryAfterSeconds(SECOND + 1));
+    }
+}
@@ -0,0 +1,63 @@
+package com.planazo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    void sample_MatchesTheZipfProbabilities() {
+        // Given
+        int n = 10;
+        double exponent = 1.0;
+        ZipfSampler sampler = new ZipfSampler(n, exponent);
+        SplittableRandom random = new SplittableRandom(42);
+        int samples = 500_000;
+        long[] counts = new long[n + 1];
+
+        // When
+        for (int i = 0; i < samples; i++) {
+            counts[(int) sampler.sample(random)]++;
+        }
+
+        // Then - frecuencia de cada rango frente a 1/k normalizado
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += 1 / Math.pow(k, exponent);
+        }
+        for (int k = 1; k <= n; k++) {
+            double expected = 1 / Math.pow(k, exponent) / harmonic;
+            assertEquals(expected, counts[k] / (double) samples, 0.005, "rank " + k);
+        }
+        assertEquals(0, counts[0]);
+    }
+
+    @Test
+    void sample_StaysWithinRangeForLargePopulations() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(5_000_000, 0.8);
+        SplittableRandom random = new SplittableRandom(7);
+
+        // When & Then
+        for (int i = 0; i < 100_000; i++) {
+            long rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= 5_000_000);
+        }
+    }
+
+    @Test
+    void sample_IsDeterministicForTheSameSeed() {
+        // Given
+        ZipfSampler sampler = new ZipfSampler(1_000, 1.1);
+        SplittableRandom first = new SplittableRandom(123);
+        SplittableRandom second = new SplittableRandom(123);
+
+        // When & Then
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+}